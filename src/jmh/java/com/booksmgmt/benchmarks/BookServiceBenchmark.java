@@ -0,0 +1,154 @@
+package com.booksmgmt.benchmarks;
+
+import com.booksmgmt.BooksmgmtApplication;
+import com.booksmgmt.model.Book;
+import com.booksmgmt.service.BookSearchIndex;
+import com.booksmgmt.service.BookService;
+import com.booksmgmt.service.ContentSearchIndex;
+import com.booksmgmt.service.DuplicateTitleIndex;
+import com.booksmgmt.service.LibraryStatsAggregate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service calls behind the main screen, against an in-memory database holding a
+ * synthetic catalog of {@code catalogSize} books. Run with
+ * {@code mvn -Pbenchmarks compile exec:exec -Djmh.args="BookServiceBenchmark -p catalogSize=1000"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class BookServiceBenchmark {
+
+    private static final int CREATE_BATCH_SIZE = 20;
+    /** Books serialized by {@link #serializeShelf}. */
+    private static final int SHELF_SIZE = 1000;
+
+    @Param({"1000", "100000", "1000000"})
+    int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private ObjectMapper objectMapper;
+    private String author;
+    private List<Book> page;
+    private List<Book> shelf;
+    private long created;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        context = new SpringApplicationBuilder(BooksmgmtApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                // Arguments, unlike default properties, override application.properties.
+                .run("--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.h2.console.enabled=false",
+                        "--app.upload.dir=" + Files.createTempDirectory("bench-covers"),
+                        "--logging.level.root=WARN");
+        bookService = context.getBean(BookService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        SyntheticLibrary library = new SyntheticLibrary(42);
+        library.insertBooks(context.getBean(JdbcTemplate.class), catalogSize);
+        // The indexes were built from the empty database at startup.
+        context.getBean(BookSearchIndex.class).rebuild();
+        context.getBean(LibraryStatsAggregate.class).rebuild();
+        context.getBean(DuplicateTitleIndex.class).rebuild();
+        context.getBean(ContentSearchIndex.class).rebuild();
+
+        author = bookService.findById(1L).orElseThrow().getAuthor();
+        page = bookService.searchBooksPage(null, null, null, false, 60, null).items;
+        shelf = new ArrayList<>();
+        String after = null;
+        do {
+            BookService.BookPage next = bookService.searchBooksPage(null, null, null, false, 200, after);
+            shelf.addAll(next.items);
+            after = next.nextCursor;
+        } while (after != null && shelf.size() < SHELF_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /** Matches about one book in a thousand. */
+    @Benchmark
+    public List<Book> searchBooksByText() {
+        return bookService.searchBooks(author, null, null, false);
+    }
+
+    /** Matches about one book in twenty. */
+    @Benchmark
+    public List<Book> searchBooksByGenreAndStatus() {
+        return bookService.searchBooks(null, "Poetry", "READ", false);
+    }
+
+    @Benchmark
+    public BookService.BookPage searchBooksFirstPage() {
+        return bookService.searchBooksPage(null, null, null, false, 60, null);
+    }
+
+    @Benchmark
+    public List<String> getDistinctGenres() {
+        return bookService.getDistinctGenres();
+    }
+
+    @Benchmark
+    public BookService.LibraryStats getStats() {
+        return bookService.getStats();
+    }
+
+    /** Grows the catalog by a batch of new, distinct titles on every call. */
+    @Benchmark
+    public BookService.BookBatch createBooks() {
+        List<BookService.BookRequest> requests = new ArrayList<>(CREATE_BATCH_SIZE);
+        for (int i = 0; i < CREATE_BATCH_SIZE; i++) {
+            BookService.BookRequest request = new BookService.BookRequest();
+            request.title = "Benchmark Volume " + (++created);
+            request.author = "Benchmark Author";
+            request.genre = "Fiction, Poetry";
+            request.readStatus = "UNREAD";
+            requests.add(request);
+        }
+        return bookService.createBooks(requests);
+    }
+
+    @Benchmark
+    public byte[] serializeBookPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeShelf() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(shelf);
+    }
+}
@@ -0,0 +1,75 @@
+package com.booksmgmt.benchmarks;
+
+import com.booksmgmt.model.Book;
+import com.booksmgmt.model.Quote;
+import com.booksmgmt.service.ContentSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranked quote search on its own, without the database; {@code quoteCount} quotes are spread
+ * over a thousand books.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ContentSearchBenchmark {
+
+    private static final int BOOKS = 1000;
+
+    @Param({"1000", "100000", "1000000"})
+    int quoteCount;
+
+    private ContentSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        index = new ContentSearchIndex(null, null, null);
+        SyntheticLibrary library = new SyntheticLibrary(42);
+        List<Book> books = new ArrayList<>(BOOKS);
+        for (long id = 1; id <= BOOKS; id++) books.add(library.book(id));
+
+        List<Quote> chunk = new ArrayList<>(10_000);
+        for (long id = 1; id <= quoteCount; id++) {
+            chunk.add(library.quote(id, books.get((int) (id % BOOKS))));
+            if (chunk.size() == 10_000 || id == quoteCount) {
+                index.putQuotes(chunk);
+                chunk.clear();
+            }
+        }
+    }
+
+    /** A term that occurs in only a few percent of the quotes. */
+    @Benchmark
+    public ContentSearchIndex.Result rareTerm() {
+        return index.search("cartographer", null, 20);
+    }
+
+    /** Several mid-frequency terms, so many quotes are scored for each. */
+    @Benchmark
+    public ContentSearchIndex.Result commonTerms() {
+        return index.search("the night sea", null, 20);
+    }
+
+    @Benchmark
+    public ContentSearchIndex.Result quotesOnly() {
+        return index.search("lighthouse storm", ContentSearchIndex.Kind.QUOTE, 20);
+    }
+}
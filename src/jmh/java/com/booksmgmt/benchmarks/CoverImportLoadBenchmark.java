@@ -0,0 +1,179 @@
+package com.booksmgmt.benchmarks;
+
+import com.booksmgmt.BooksmgmtApplication;
+import com.booksmgmt.service.BookService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of adding books with cover URLs over HTTP, against a stub cover provider that
+ * answers each image after {@code coverLatencyMs}. Compares the blocking and asynchronous
+ * cover I/O modes and, on Java 21, platform against virtual request threads. Tomcat's pool is
+ * kept small so that blocked request threads show up as lost throughput. Run with
+ * {@code mvn -Pbenchmarks compile exec:exec -Djmh.args="CoverImportLoadBenchmark"}, adding
+ * {@code -p virtualThreads=true,false} on Java 21.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class CoverImportLoadBenchmark {
+
+    private static final int IMPORT_SIZE = 50;
+    private static final int COVER_SIZE = 20_000;
+
+    @Param({"blocking", "async"})
+    String coverIo;
+
+    @Param({"false"})
+    boolean virtualThreads;
+
+    @Param({"200"})
+    int coverLatencyMs;
+
+    @Param({"32"})
+    int perHostLimit;
+
+    private HttpServer provider;
+    private ExecutorService providerThreads;
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private ExecutorService clientThreads;
+    private HttpClient client;
+    private String booksUrl;
+    private String coverUrl;
+    private final AtomicLong titles = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        provider = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        providerThreads = Executors.newCachedThreadPool();
+        provider.setExecutor(providerThreads);
+        provider.createContext("/covers/", this::serveCover);
+        provider.start();
+        String providerUrl = "http://127.0.0.1:" + provider.getAddress().getPort() + "/";
+        coverUrl = providerUrl + "covers/";
+
+        context = new SpringApplicationBuilder(BooksmgmtApplication.class)
+                .logStartupInfo(false)
+                .run("--spring.main.banner-mode=off",
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=50",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:cover-load;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.h2.console.enabled=false",
+                        "--app.upload.dir=" + Files.createTempDirectory("bench-covers"),
+                        "--app.covers.allowed-prefixes=" + providerUrl,
+                        "--app.covers.async-io=" + coverIo.equals("async"),
+                        "--app.covers.per-host-limit=" + perHostLimit,
+                        "--logging.level.root=WARN");
+        objectMapper = context.getBean(ObjectMapper.class);
+        booksUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port") + "/api/books";
+        clientThreads = Executors.newCachedThreadPool();
+        client = HttpClient.newBuilder().executor(clientThreads).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        provider.stop(0);
+        providerThreads.shutdownNow();
+        clientThreads.shutdownNow();
+    }
+
+    /** One book per request; the request returns once its cover is stored. */
+    @Benchmark
+    @Threads(64)
+    public int addBookWithCover() throws Exception {
+        long n = titles.incrementAndGet();
+        String form = "title=" + URLEncoder.encode("Load Test " + n, StandardCharsets.UTF_8)
+                + "&coverImageUrl=" + URLEncoder.encode(coverUrl + n + ".jpg", StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(booksUrl))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /** A batch of books whose covers download in the background, timed until all are stored. */
+    @Benchmark
+    @Threads(4)
+    public int importWithCovers() throws Exception {
+        List<BookService.BookRequest> books = new ArrayList<>(IMPORT_SIZE);
+        for (int i = 0; i < IMPORT_SIZE; i++) {
+            long n = titles.incrementAndGet();
+            BookService.BookRequest book = new BookService.BookRequest();
+            book.title = "Load Test " + n;
+            book.coverImageUrl = coverUrl + n + ".jpg";
+            books.add(book);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(booksUrl + "/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(books)))
+                .build();
+        HttpResponse<Void> created = client.send(request, HttpResponse.BodyHandlers.discarding());
+        String batchId = created.headers().firstValue("X-Cover-Download-Id").orElseThrow();
+
+        HttpRequest progress = HttpRequest.newBuilder(URI.create(booksUrl + "/cover-downloads/" + batchId)).build();
+        while (true) {
+            JsonNode batch = objectMapper.readTree(client.send(progress, HttpResponse.BodyHandlers.ofByteArray()).body());
+            if (batch.get("done").asBoolean()) return batch.get("completed").asInt();
+            Thread.sleep(20);
+        }
+    }
+
+    /** Distinct bytes per path, so every cover is stored rather than deduplicated. */
+    private void serveCover(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Thread.sleep(coverLatencyMs);
+            byte[] image = new byte[COVER_SIZE];
+            new Random(exchange.getRequestURI().getPath().hashCode()).nextBytes(image);
+            exchange.getResponseHeaders().set("Content-Type", "image/jpeg");
+            exchange.sendResponseHeaders(200, image.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(image);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.booksmgmt.benchmarks;
+
+import com.booksmgmt.model.Book;
+import com.booksmgmt.service.DuplicateTitleIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** The duplicate title checks run before every create, without the database. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class DuplicateTitleBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int catalogSize;
+
+    private DuplicateTitleIndex index;
+    private String existing;
+    private String typo;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        index = new DuplicateTitleIndex(null);
+        SyntheticLibrary library = new SyntheticLibrary(42);
+        List<Book> books = new ArrayList<>(catalogSize);
+        for (long id = 1; id <= catalogSize; id++) books.add(library.book(id));
+        index.putAll(books);
+
+        existing = books.get(catalogSize / 2).getTitle();
+        // Two letters swapped early in the title.
+        typo = existing.charAt(1) + "" + existing.charAt(0) + existing.substring(2);
+    }
+
+    @Benchmark
+    public boolean containsTitle() {
+        return index.containsTitle(existing, null);
+    }
+
+    @Benchmark
+    public List<DuplicateTitleIndex.Candidate> candidates() {
+        return index.candidates(typo, null);
+    }
+}
@@ -0,0 +1,148 @@
+package com.booksmgmt.benchmarks;
+
+import com.booksmgmt.model.Book;
+import com.booksmgmt.model.Quote;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates a deterministic catalog for the benchmarks. The same seed and size always give the
+ * same books and quotes, so runs on different commits measure the same data. Word choice is
+ * skewed towards the start of the word list, which gives quote text a natural mix of common
+ * and rare terms.
+ */
+public final class SyntheticLibrary {
+
+    static final String[] GENRES = {
+            "Fiction", "Fantasy", "Science Fiction", "Mystery", "History", "Biography",
+            "Poetry", "Philosophy", "Romance", "Horror", "Travel", "Science"
+    };
+    static final String[] READ_STATUSES = {"READ", "READING", "UNREAD"};
+    static final String[] LOCATIONS = {"Living room", "Bedroom", "Study", "Attic", "Office", ""};
+
+    private static final String[] FIRST_NAMES = {
+            "Ada", "Bram", "Clara", "Dmitri", "Edith", "Fyodor", "Grace", "Homer", "Iris", "Jules",
+            "Kazuo", "Leo", "Mary", "Nadine", "Orhan", "Pearl", "Quentin", "Rosa", "Saul", "Toni",
+            "Ursula", "Virginia", "Walt", "Xavier", "Yasunari"
+    };
+    private static final String[] LAST_NAMES = {
+            "Austen", "Borges", "Calvino", "Dickens", "Eliot", "Faulkner", "Gogol", "Hesse", "Ishiguro",
+            "Joyce", "Kafka", "Lessing", "Melville", "Nabokov", "Orwell", "Pamuk", "Rilke", "Sebald",
+            "Tolstoy", "Updike", "Vonnegut", "Woolf", "Yeats", "Zola", "Morrison", "Le Guin", "Tolkien",
+            "Bronte", "Camus", "Dostoevsky", "Eco", "Flaubert", "Gaskell", "Hugo", "Ibsen", "James",
+            "Kundera", "Lawrence", "Mann", "Neruda"
+    };
+    private static final String[] WORDS = {
+            "the", "of", "and", "a", "in", "to", "is", "was", "it", "for", "on", "with", "as", "his",
+            "her", "at", "by", "from", "that", "this", "all", "but", "not", "we", "they", "one",
+            "sea", "night", "light", "house", "river", "time", "world", "heart", "king", "garden",
+            "winter", "summer", "road", "city", "storm", "stone", "fire", "silence", "shadow", "glass",
+            "memory", "letter", "island", "forest", "mountain", "voice", "door", "window", "dream",
+            "ship", "harbour", "moon", "star", "bread", "salt", "iron", "rain", "snow", "wind", "bird",
+            "wolf", "horse", "clock", "mirror", "book", "map", "bridge", "tower", "field", "orchard",
+            "lantern", "feather", "compass", "anchor", "violin", "cathedral", "lighthouse", "meadow",
+            "labyrinth", "archive", "pilgrim", "cartographer", "alchemist", "tapestry", "ember",
+            "quiet", "lost", "last", "long", "dark", "bright", "small", "old", "young", "strange",
+            "distant", "hidden", "broken", "golden", "silver", "endless", "secret", "patient", "wild"
+    };
+
+    private final Random random;
+
+    public SyntheticLibrary(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public String title(long n) {
+        int words = 2 + random.nextInt(4);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) title.append(' ');
+            title.append(capitalize(WORDS[26 + random.nextInt(WORDS.length - 26)]));
+        }
+        // Keeps titles distinct at any catalog size.
+        return title.append(' ').append(n).toString();
+    }
+
+    public String author() {
+        return pick(FIRST_NAMES) + " " + pick(LAST_NAMES);
+    }
+
+    public String genre() {
+        Set<String> genres = new LinkedHashSet<>();
+        int count = 1 + random.nextInt(2);
+        while (genres.size() < count) genres.add(pick(GENRES));
+        return String.join(", ", genres);
+    }
+
+    /** A sentence of {@code min} to {@code max} words, skewed towards common ones. */
+    public String sentence(int min, int max) {
+        int words = min + random.nextInt(max - min + 1);
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) sentence.append(' ');
+            double r = random.nextDouble();
+            sentence.append(WORDS[(int) (r * r * WORDS.length)]);
+        }
+        return capitalize(sentence.append('.').toString());
+    }
+
+    /** A detached book with the given id, for benchmarks that do not need the database. */
+    public Book book(long id) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title(id));
+        book.setAuthor(author());
+        book.setGenre(genre());
+        book.setReadStatus(pick(READ_STATUSES));
+        book.setRating(random.nextInt(6) == 0 ? null : 1 + random.nextInt(5));
+        book.setLocation(pick(LOCATIONS));
+        return book;
+    }
+
+    public Quote quote(long id, Book book) {
+        Quote quote = new Quote();
+        quote.setId(id);
+        quote.setBook(book);
+        quote.setContent(sentence(6, 40));
+        quote.setPageNumber(1 + random.nextInt(400));
+        return quote;
+    }
+
+    /**
+     * Inserts {@code count} books with ids 1..count and their genre rows in JDBC batches, then
+     * moves the book sequence past them.
+     */
+    public void insertBooks(JdbcTemplate jdbc, int count) {
+        int batchSize = 1000;
+        List<Object[]> books = new ArrayList<>(batchSize);
+        List<Object[]> genres = new ArrayList<>(batchSize * 2);
+        for (long id = 1; id <= count; id++) {
+            Book book = book(id);
+            books.add(new Object[]{id, book.getTitle(), book.getAuthor(), book.getGenre(), book.getLocation(),
+                    book.getReadStatus(), book.getRating(), 100 + random.nextInt(600), 1900 + random.nextInt(125)});
+            for (String genre : book.getGenres()) genres.add(new Object[]{id, genre});
+            if (books.size() == batchSize || id == count) {
+                jdbc.batchUpdate("INSERT INTO books (id, title, author, genre, location, read_status, rating, pages, "
+                        + "publication_year, version, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, CURRENT_TIMESTAMP)",
+                        books);
+                jdbc.batchUpdate("INSERT INTO book_genres (book_id, genre) VALUES (?, ?)", genres);
+                books.clear();
+                genres.clear();
+            }
+        }
+        jdbc.execute("ALTER SEQUENCE books_seq RESTART WITH " + (count + 100));
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
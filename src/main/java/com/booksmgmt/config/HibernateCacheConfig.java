@@ -0,0 +1,64 @@
+package com.booksmgmt.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+
+/**
+ * Caffeine-backed regions for Hibernate's second-level and query caches. Every region is
+ * created here with a size bound, so Hibernate is configured to fail on a region it does not
+ * find rather than create an unbounded one. Region statistics, evictions included, are
+ * published as cache metrics.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    /** Must never evict, or cached query results could outlive the writes that staled them. */
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(MeterRegistry meterRegistry,
+                                              @Value("${app.cache.books-size:10000}") long booksSize,
+                                              @Value("${app.cache.quotes-size:20000}") long quotesSize,
+                                              @Value("${app.cache.memories-size:20000}") long memoriesSize,
+                                              @Value("${app.cache.query-results-size:500}") long queryResultsSize) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        createRegion(cacheManager, meterRegistry, "books", booksSize);
+        createRegion(cacheManager, meterRegistry, "books.genres", booksSize);
+        createRegion(cacheManager, meterRegistry, "quotes", quotesSize);
+        createRegion(cacheManager, meterRegistry, "memories", memoriesSize);
+        createRegion(cacheManager, meterRegistry, QUERY_RESULTS_REGION, queryResultsSize);
+        createRegion(cacheManager, meterRegistry, UPDATE_TIMESTAMPS_REGION, -1);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /** Creates a region holding at most {@code maximumSize} entries, or any number if negative. */
+    private static void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry,
+                                     String name, long maximumSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maximumSize >= 0) configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        // Hibernate only stores immutable entries, so copying them on every access buys nothing.
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        Cache<Object, Object> cache = cacheManager.createCache(name, configuration);
+        JCacheMetrics.monitor(meterRegistry, cache);
+    }
+}
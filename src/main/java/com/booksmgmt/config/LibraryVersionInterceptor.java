@@ -0,0 +1,32 @@
+package com.booksmgmt.config;
+
+import com.booksmgmt.service.LibraryVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Tags library GETs with a weak ETag derived from {@link LibraryVersion} and answers a
+ * matching {@code If-None-Match} with 304 before the controller runs, so an unchanged library
+ * costs no query at all.
+ */
+public class LibraryVersionInterceptor implements HandlerInterceptor {
+
+    private final LibraryVersion libraryVersion;
+
+    public LibraryVersionInterceptor(LibraryVersion libraryVersion) {
+        this.libraryVersion = libraryVersion;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod())) return true;
+
+        String etag = "W/\"" + libraryVersion.current() + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
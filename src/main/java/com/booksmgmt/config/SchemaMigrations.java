@@ -0,0 +1,93 @@
+package com.booksmgmt.config;
+
+import com.booksmgmt.model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Data migrations for existing databases that {@code ddl-auto=update} cannot perform on its
+ * own: it creates new tables, columns, sequences and indexes but never fills them. Every step
+ * is idempotent and runs on each startup, after the schema update and before the web server
+ * accepts requests.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaMigrations {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigrations(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        alignSequence("books", "books_seq", 50);
+        alignSequence("quotes", "quotes_seq", 50);
+        alignSequence("memories", "memories_seq", 50);
+        backfillBookGenres();
+        backfillVersions("books");
+        backfillVersions("quotes");
+        backfillVersions("memories");
+    }
+
+    /**
+     * Moves a sequence past the ids already in its table. Tables that used identity columns
+     * before switching to a pooled sequence would otherwise be handed ids that are taken.
+     * Hibernate's pooled optimizer hands out the block ending at the value it reads, so the
+     * sequence must be at least {@code allocationSize} ahead of the highest id.
+     */
+    private void alignSequence(String table, String sequence, int allocationSize) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) return;
+
+        Long next = jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                Long.class, sequence.toUpperCase(Locale.ROOT));
+        long required = maxId + allocationSize;
+        if (next != null && next >= required) return;
+
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + required);
+        log.info("Moved sequence {} to {} past existing {} ids", sequence, required, table);
+    }
+
+    /**
+     * Gives rows that predate the version and updatedAt columns a starting version, which
+     * optimistic locking and the bulk updates' {@code version + 1} need, and counts them as
+     * changed now.
+     */
+    private void backfillVersions(String table) {
+        int updated = jdbcTemplate.update("UPDATE " + table + " SET version = COALESCE(version, 0), "
+                + "updated_at = COALESCE(updated_at, CURRENT_TIMESTAMP) WHERE version IS NULL OR updated_at IS NULL");
+        if (updated > 0) log.info("Backfilled version and updated_at of {} {} rows", updated, table);
+    }
+
+    /** Splits the comma-separated books.genre of books that predate the book_genres table. */
+    private void backfillBookGenres() {
+        List<Object[]> rows = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT id, genre FROM books b WHERE genre IS NOT NULL AND genre <> '' "
+                        + "AND NOT EXISTS (SELECT 1 FROM book_genres g WHERE g.book_id = b.id)",
+                rs -> {
+                    long id = rs.getLong("id");
+                    Book.splitGenres(rs.getString("genre")).stream()
+                            .map(Book::genreKey)
+                            .distinct()
+                            .forEach(key -> rows.add(new Object[]{id, key}));
+                });
+        if (rows.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate("INSERT INTO book_genres (book_id, genre) VALUES (?, ?)", rows);
+        log.info("Backfilled {} book genre rows", rows.size());
+    }
+}
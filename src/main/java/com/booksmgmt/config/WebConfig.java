@@ -1,12 +1,17 @@
 package com.booksmgmt.config;
 
+import com.booksmgmt.service.LibraryVersion;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.nio.file.Paths;
+import java.time.Duration;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -14,15 +19,39 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${app.upload.dir:./uploads/covers}")
     private String uploadDir;
 
+    private final LibraryVersion libraryVersion;
+
+    public WebConfig(LibraryVersion libraryVersion) {
+        this.libraryVersion = libraryVersion;
+    }
+
     @Override
     public void addViewControllers(ViewControllerRegistry registry) {
         registry.addViewController("/book/{id}").setViewName("forward:/book.html");
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new LibraryVersionInterceptor(libraryVersion))
+                .addPathPatterns("/api/books", "/api/books/**", "/api/search", "/api/sync")
+                .excludePathPatterns("/api/books/cover-downloads/**");
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         String absolutePath = Paths.get(uploadDir).toAbsolutePath().normalize().toUri().toString();
+        // Cover files are never rewritten in place: new content gets a new name, so browsers
+        // can keep them for good and the file name doubles as a strong ETag.
         registry.addResourceHandler("/uploads/covers/**")
-                .addResourceLocations(absolutePath);
+                .addResourceLocations(absolutePath)
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .setEtagGenerator(WebConfig::coverEtag);
+    }
+
+    private static String coverEtag(Resource resource) {
+        String filename = resource.getFilename();
+        if (filename == null) return null;
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
     }
 }
@@ -2,6 +2,9 @@ package com.booksmgmt.controller;
 
 import com.booksmgmt.model.Book;
 import com.booksmgmt.service.BookService;
+import com.booksmgmt.service.CoverDownloader;
+import com.booksmgmt.service.CoverStore;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -9,6 +12,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/books")
@@ -21,11 +25,25 @@ public class BookController {
     }
 
     @GetMapping
-    public List<Book> getAllBooks(@RequestParam(required = false) String search,
-                                 @RequestParam(required = false) String genre,
-                                 @RequestParam(required = false) String readStatus,
-                                 @RequestParam(required = false, defaultValue = "false") boolean noLocation) {
-        return bookService.searchBooks(search, genre, readStatus, noLocation);
+    public ResponseEntity<?> getAllBooks(@RequestParam(required = false) String search,
+                                         @RequestParam(required = false) String genre,
+                                         @RequestParam(required = false) String readStatus,
+                                         @RequestParam(required = false, defaultValue = "false") boolean noLocation,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String after) {
+        if (limit == null) {
+            return ResponseEntity.ok(bookService.searchBooks(search, genre, readStatus, noLocation));
+        }
+        try {
+            return ResponseEntity.ok(bookService.searchBooksPage(search, genre, readStatus, noLocation, limit, after));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> deleteBooks(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(Map.of("deleted", bookService.deleteBooks(ids)));
     }
 
     @GetMapping("/missing-location")
@@ -38,15 +56,33 @@ public class BookController {
         if (req.location == null || req.location.isBlank()) {
             return ResponseEntity.badRequest().body(Map.of("error", "Location is required."));
         }
-        int updated = bookService.bulkUpdateLocation(req.ids, req.location);
+        BookService.BookPatch patch = new BookService.BookPatch();
+        patch.location = req.location;
+        int updated = bookService.bulkPatch(req.ids, patch);
         return ResponseEntity.ok(Map.of("updated", updated));
     }
 
+    @PatchMapping("/bulk")
+    public ResponseEntity<?> bulkPatch(@RequestBody BulkPatchRequest req) {
+        if (req.ids == null || req.ids.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Book ids are required."));
+        }
+        try {
+            return ResponseEntity.ok(Map.of("updated", bookService.bulkPatch(req.ids, req)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     public static class BulkLocationRequest {
         public List<Long> ids;
         public String location;
     }
 
+    public static class BulkPatchRequest extends BookService.BookPatch {
+        public List<Long> ids;
+    }
+
     @GetMapping("/genres")
     public List<String> getGenres() {
         return bookService.getDistinctGenres();
@@ -60,12 +96,36 @@ public class BookController {
     @PostMapping("/batch")
     public ResponseEntity<?> createBooks(@RequestBody List<BookService.BookRequest> requests) {
         try {
-            return ResponseEntity.ok(bookService.createBooks(requests));
+            BookService.BookBatch batch = bookService.createBooks(requests);
+            return ResponseEntity.ok()
+                    .header("X-Cover-Download-Id", batch.coverDownloadId)
+                    .body(batch.books);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
         }
     }
 
+    @GetMapping("/duplicates")
+    public ResponseEntity<?> findDuplicates(@RequestParam String title,
+                                            @RequestParam(required = false) Long excludeId) {
+        if (title.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Title is required."));
+        }
+        return ResponseEntity.ok(bookService.findSimilarTitles(title, excludeId));
+    }
+
+    @GetMapping("/cover-downloads/{batchId}")
+    public ResponseEntity<CoverDownloader.Batch> getCoverDownloads(@PathVariable String batchId) {
+        return bookService.getCoverDownloads(batchId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/covers/compact")
+    public CoverStore.CompactionReport compactCovers() throws IOException {
+        return bookService.compactCovers();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Book> getBook(@PathVariable Long id) {
         return bookService.findById(id)
@@ -73,6 +133,18 @@ public class BookController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/full")
+    public ResponseEntity<?> getBookDetail(@PathVariable Long id,
+                                           @RequestParam(required = false, defaultValue = "") Set<String> fields) {
+        try {
+            return bookService.getBookDetail(id, fields)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping
     public ResponseEntity<?> createBook(@RequestParam("title") String title,
                            @RequestParam(value = "author", required = false) String author,
@@ -96,7 +168,7 @@ public class BookController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Book> updateBook(@PathVariable Long id,
+    public ResponseEntity<?> updateBook(@PathVariable Long id,
                                            @RequestParam("title") String title,
                                            @RequestParam(value = "author", required = false) String author,
                                            @RequestParam(value = "genre", required = false) String genre,
@@ -109,10 +181,15 @@ public class BookController {
                                            @RequestParam(value = "rating", required = false) Integer rating,
                                            @RequestParam(value = "notes", required = false) String notes,
                                            @RequestParam(value = "coverImage", required = false) MultipartFile coverImage,
-                                           @RequestParam(value = "coverImageUrl", required = false) String coverImageUrl) throws IOException {
-        Book updated = bookService.updateBook(id, title, author, genre, isbn, publisher, year, pages,
-                location, readStatus, rating, notes, coverImage, coverImageUrl);
-        return updated != null ? ResponseEntity.ok(updated) : ResponseEntity.notFound().build();
+                                           @RequestParam(value = "coverImageUrl", required = false) String coverImageUrl,
+                                           @RequestParam(value = "version", required = false) Long version) throws IOException {
+        try {
+            Book updated = bookService.updateBook(id, title, author, genre, isbn, publisher, year, pages,
+                    location, readStatus, rating, notes, coverImage, coverImageUrl, version);
+            return updated != null ? ResponseEntity.ok(updated) : ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("error", "This book was changed elsewhere. Reload it and try again."));
+        }
     }
 
     @DeleteMapping("/{id}")
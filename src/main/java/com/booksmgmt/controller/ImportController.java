@@ -0,0 +1,87 @@
+package com.booksmgmt.controller;
+
+import com.booksmgmt.service.BookRowReader;
+import com.booksmgmt.service.BookService;
+import com.booksmgmt.service.ImportJobService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/imports")
+public class ImportController {
+
+    private final ImportJobService importJobService;
+    private final ObjectMapper objectMapper;
+
+    public ImportController(ImportJobService importJobService, ObjectMapper objectMapper) {
+        this.importJobService = importJobService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(consumes = "application/json")
+    public ResponseEntity<?> importBooks(@RequestBody List<BookService.BookRequest> requests) {
+        return accepted(importJobService.submit(requests));
+    }
+
+    /**
+     * Spools the NDJSON body to a temporary file and imports it from there in the background,
+     * so the rows are never all held in memory.
+     */
+    @PostMapping(consumes = "application/x-ndjson")
+    public ResponseEntity<?> importNdjson(InputStream body) throws IOException {
+        Path file = Files.createTempFile("book-import-", ".ndjson");
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return accepted(importJobService.submitNdjson(file, objectMapper.readerFor(BookService.BookRequest.class)));
+    }
+
+    /**
+     * Imports an NDJSON or CSV body while it is being read, flushing fixed-size chunks as it
+     * goes, and responds with the finished job once the whole body has been processed. The job
+     * stays available on its URL afterwards, like a queued one.
+     */
+    @PostMapping(path = "/stream", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<?> importStream(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                          InputStream body) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            BookRowReader rows = MediaType.valueOf("text/csv").includes(contentType)
+                    ? BookRowReader.csv(reader)
+                    : BookRowReader.ndjson(reader, objectMapper.readerFor(BookService.BookRequest.class));
+            ImportJobService.ImportJob job = importJobService.importStream(rows);
+            return ResponseEntity.ok(Map.of("job", job, "rows", job.rows(0, 1000)));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable String id,
+                                    @RequestParam(defaultValue = "0") int rowsFrom,
+                                    @RequestParam(defaultValue = "1000") int rowsLimit) {
+        return importJobService.findJob(id)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(Map.of("job", job, "rows", job.rows(rowsFrom, rowsLimit))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static ResponseEntity<?> accepted(ImportJobService.ImportJob job) {
+        return ResponseEntity.accepted()
+                .header("Location", "/api/imports/" + job.id)
+                .body(job);
+    }
+}
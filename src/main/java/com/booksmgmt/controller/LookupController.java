@@ -0,0 +1,30 @@
+package com.booksmgmt.controller;
+
+import com.booksmgmt.service.MetadataLookupService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/lookup")
+public class LookupController {
+
+    private final MetadataLookupService lookupService;
+
+    public LookupController(MetadataLookupService lookupService) {
+        this.lookupService = lookupService;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> lookup(@RequestParam String title,
+                                    @RequestParam(required = false) String author) {
+        if (title.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Title is required."));
+        }
+        return lookupService.lookup(title, author)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "No metadata found.")));
+    }
+}
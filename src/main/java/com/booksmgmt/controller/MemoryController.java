@@ -2,6 +2,7 @@ package com.booksmgmt.controller;
 
 import com.booksmgmt.model.Memory;
 import com.booksmgmt.service.MemoryService;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -31,13 +32,32 @@ public class MemoryController {
         return memory != null ? ResponseEntity.ok(memory) : ResponseEntity.notFound().build();
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> createMemories(@PathVariable Long bookId,
+                                            @RequestBody List<MemoryService.MemoryRequest> requests) {
+        if (requests.stream().anyMatch(r -> r.content == null || r.content.isBlank())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Content is required."));
+        }
+        List<Memory> created = memoryService.createAll(bookId, requests);
+        return created != null ? ResponseEntity.ok(created) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> deleteMemories(@PathVariable Long bookId, @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(Map.of("deleted", memoryService.deleteAll(bookId, ids)));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<Memory> updateMemory(@PathVariable Long bookId, @PathVariable Long id,
-                                               @RequestBody Map<String, String> body) {
+    public ResponseEntity<?> updateMemory(@PathVariable Long bookId, @PathVariable Long id,
+                                          @RequestBody Map<String, String> body) {
         String content = body.get("content");
 
-        Memory memory = memoryService.update(id, content);
-        return memory != null ? ResponseEntity.ok(memory) : ResponseEntity.notFound().build();
+        try {
+            Memory memory = memoryService.update(id, content);
+            return memory != null ? ResponseEntity.ok(memory) : ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("error", "This memory was changed elsewhere. Reload it and try again."));
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -2,6 +2,7 @@ package com.booksmgmt.controller;
 
 import com.booksmgmt.model.Quote;
 import com.booksmgmt.service.QuoteService;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -32,14 +33,33 @@ public class QuoteController {
         return quote != null ? ResponseEntity.ok(quote) : ResponseEntity.notFound().build();
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> createQuotes(@PathVariable Long bookId,
+                                          @RequestBody List<QuoteService.QuoteRequest> requests) {
+        if (requests.stream().anyMatch(r -> r.content == null || r.content.isBlank())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Content is required."));
+        }
+        List<Quote> created = quoteService.createAll(bookId, requests);
+        return created != null ? ResponseEntity.ok(created) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> deleteQuotes(@PathVariable Long bookId, @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(Map.of("deleted", quoteService.deleteAll(bookId, ids)));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<Quote> updateQuote(@PathVariable Long bookId, @PathVariable Long id,
-                                             @RequestBody Map<String, Object> body) {
+    public ResponseEntity<?> updateQuote(@PathVariable Long bookId, @PathVariable Long id,
+                                         @RequestBody Map<String, Object> body) {
         String content = (String) body.get("content");
         Integer pageNumber = body.get("pageNumber") != null ? ((Number) body.get("pageNumber")).intValue() : null;
 
-        Quote quote = quoteService.update(id, content, pageNumber);
-        return quote != null ? ResponseEntity.ok(quote) : ResponseEntity.notFound().build();
+        try {
+            Quote quote = quoteService.update(id, content, pageNumber);
+            return quote != null ? ResponseEntity.ok(quote) : ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("error", "This quote was changed elsewhere. Reload it and try again."));
+        }
     }
 
     @DeleteMapping("/{id}")
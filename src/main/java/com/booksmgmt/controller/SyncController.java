@@ -0,0 +1,23 @@
+package com.booksmgmt.controller;
+
+import com.booksmgmt.service.SyncService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    @GetMapping
+    public SyncService.SyncResult sync(@RequestParam(required = false) Long since) {
+        return syncService.changesSince(since);
+    }
+}
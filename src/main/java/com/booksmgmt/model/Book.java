@@ -1,13 +1,31 @@
 package com.booksmgmt.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_read_status", columnList = "readStatus"),
+        @Index(name = "idx_books_location", columnList = "location"),
+        @Index(name = "idx_books_rating", columnList = "rating"),
+        @Index(name = "idx_books_updated_at", columnList = "updatedAt")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -27,8 +45,47 @@ public class Book {
 
     private String coverImagePath;
 
+    /** Resized copies of the cover for the grid and the detail page, filled in in the background. */
+    private String coverThumbPath;
+    private String coverDetailPath;
+
+    /** Lower-cased genre names split out of {@link #genre}, for indexed genre filtering. */
+    @ElementCollection
+    @CollectionTable(name = "book_genres", joinColumns = @JoinColumn(name = "book_id"),
+            indexes = @Index(name = "idx_book_genres_genre", columnList = "genre"))
+    @Column(name = "genre", nullable = false)
+    @JsonIgnore
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books.genres")
+    private Set<String> genres = new LinkedHashSet<>();
+
+    /** Incremented on every write, bulk statements included; a stale version fails the update. */
+    @Version
+    private Long version;
+
+    /** When the book was last written, for {@code /api/sync}. */
+    private Instant updatedAt;
+
     public Book() {}
 
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.updatedAt = Instant.now();
+    }
+
+    /** Splits a comma-separated genre string into its trimmed, non-empty names. */
+    public static List<String> splitGenres(String genre) {
+        if (genre == null) return List.of();
+        return Arrays.stream(genre.split(","))
+                .map(String::trim)
+                .filter(g -> !g.isEmpty())
+                .toList();
+    }
+
+    public static String genreKey(String genre) {
+        return genre.trim().toLowerCase(Locale.ROOT);
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
@@ -39,7 +96,13 @@ public class Book {
     public void setAuthor(String author) { this.author = author; }
 
     public String getGenre() { return genre; }
-    public void setGenre(String genre) { this.genre = genre; }
+    public void setGenre(String genre) {
+        this.genre = genre;
+        this.genres.clear();
+        splitGenres(genre).forEach(g -> this.genres.add(genreKey(g)));
+    }
+
+    public Set<String> getGenres() { return genres; }
 
     public String getIsbn() { return isbn; }
     public void setIsbn(String isbn) { this.isbn = isbn; }
@@ -67,4 +130,15 @@ public class Book {
 
     public String getCoverImagePath() { return coverImagePath; }
     public void setCoverImagePath(String coverImagePath) { this.coverImagePath = coverImagePath; }
+
+    public String getCoverThumbPath() { return coverThumbPath; }
+    public void setCoverThumbPath(String coverThumbPath) { this.coverThumbPath = coverThumbPath; }
+
+    public String getCoverDetailPath() { return coverDetailPath; }
+    public void setCoverDetailPath(String coverDetailPath) { this.coverDetailPath = coverDetailPath; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
 }
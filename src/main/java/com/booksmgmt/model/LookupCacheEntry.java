@@ -0,0 +1,38 @@
+package com.booksmgmt.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/** A cached metadata lookup, keyed by normalized title and author. */
+@Entity
+@Table(name = "lookup_cache", indexes = @Index(name = "idx_lookup_cache_fetched_at", columnList = "fetchedAt"))
+public class LookupCacheEntry {
+
+    @Id
+    @Column(length = 512)
+    private String cacheKey;
+
+    /** The merged result as JSON, or null when no provider found the book. */
+    @Column(length = 8000)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant fetchedAt;
+
+    public LookupCacheEntry() {}
+
+    public LookupCacheEntry(String cacheKey, String payload, Instant fetchedAt) {
+        this.cacheKey = cacheKey;
+        this.payload = payload;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public String getCacheKey() { return cacheKey; }
+    public void setCacheKey(String cacheKey) { this.cacheKey = cacheKey; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public Instant getFetchedAt() { return fetchedAt; }
+    public void setFetchedAt(Instant fetchedAt) { this.fetchedAt = fetchedAt; }
+}
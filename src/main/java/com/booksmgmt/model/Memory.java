@@ -1,15 +1,22 @@
 package com.booksmgmt.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "memories")
+@Table(name = "memories", indexes = @Index(name = "idx_memories_updated_at", columnList = "updatedAt"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "memories")
 public class Memory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "memories_seq")
+    @SequenceGenerator(name = "memories_seq", sequenceName = "memories_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 2000, nullable = false)
@@ -22,11 +29,22 @@ public class Memory {
     @JsonIgnore
     private Book book;
 
+    @Version
+    private Long version;
+
+    private Instant updatedAt;
+
     public Memory() {}
 
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
+        this.updatedAt = Instant.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = Instant.now();
     }
 
     public Long getId() { return id; }
@@ -40,4 +58,16 @@ public class Memory {
 
     public Book getBook() { return book; }
     public void setBook(Book book) { this.book = book; }
+
+    /**
+     * The book's id for clients, read from the proxy without loading the book. Not a getter, so
+     * that derived queries keep resolving {@code bookId} through {@link #book}.
+     */
+    @JsonProperty("bookId")
+    public Long bookId() { return book != null ? book.getId() : null; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
 }
@@ -0,0 +1,45 @@
+package com.booksmgmt.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Records that a book, quote or memory was deleted, so that {@code /api/sync} can tell clients
+ * to drop it. A deleted book takes its quotes and memories with it; they get no tombstones of
+ * their own. Rows are written by set-based statements, hence the identity id.
+ */
+@Entity
+@Table(name = "tombstones", indexes = @Index(name = "idx_tombstones_deleted_at", columnList = "deletedAt"))
+public class Tombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonIgnore
+    private Long id;
+
+    /** {@code book}, {@code quote} or {@code memory}. */
+    @Column(nullable = false, length = 16)
+    private String entity;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private Long bookId;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+
+    public Tombstone() {}
+
+    public Long getId() { return id; }
+
+    public String getEntity() { return entity; }
+
+    public Long getEntityId() { return entityId; }
+
+    public Long getBookId() { return bookId; }
+
+    public Instant getDeletedAt() { return deletedAt; }
+}
@@ -1,21 +1,112 @@
 package com.booksmgmt.repository;
 
 import com.booksmgmt.model.Book;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
 
-    @Query("SELECT b FROM Book b ORDER BY CASE WHEN b.rating IS NULL THEN 1 ELSE 0 END, b.rating DESC")
+    // Whole-table lists are not query-cached: a cached result holds only ids, and a library
+    // bigger than the books region would load every evicted one with a SELECT of its own.
+    @Query("SELECT b FROM Book b ORDER BY CASE WHEN b.rating IS NULL THEN 1 ELSE 0 END, b.rating DESC, b.id")
     List<Book> findAllSortedByRating();
 
-    boolean existsByTitleIgnoreCase(String title);
+    @Query("SELECT b.id, b.title FROM Book b")
+    List<Object[]> findAllIdsAndTitles();
 
-    @Query("SELECT b FROM Book b WHERE b.location IS NULL OR b.location = '' ORDER BY b.id DESC")
+    @Query("SELECT b FROM Book b WHERE b.location IS NULL OR TRIM(b.location) = '' ORDER BY b.id DESC")
     List<Book> findBooksWithMissingLocation();
 
+    /** Forward-only cursor over every book in id order; must be consumed inside a transaction. */
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<Book> streamAllOrderById();
+
+    /** Books written after the given instant, through the updatedAt index. */
+    List<Book> findByUpdatedAtAfter(Instant after);
+
+    /**
+     * Loads the book locked for the rest of the transaction, for background writes that must not
+     * lose to a concurrent edit. Changing the loaded book replaces only its own cache entry,
+     * where a bulk UPDATE would evict the whole books region.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id = :id")
+    Optional<Book> findByIdForUpdate(Long id);
+
+    @Query("SELECT b FROM Book b WHERE b.coverImagePath IS NOT NULL AND b.coverThumbPath IS NULL")
+    List<Book> findBooksMissingCoverVariants();
+
+    long countByCoverImagePath(String coverImagePath);
+
+    @Query("SELECT DISTINCT b.coverImagePath FROM Book b WHERE b.coverImagePath IS NOT NULL")
+    List<String> findAllCoverImagePaths();
+
+    // The bulk updates below bypass the entity lifecycle, so they bump version and updatedAt
+    // themselves, and evict the whole books region; they are kept for many-book writes.
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Book b SET b.coverImagePath = :newPath, b.coverThumbPath = NULL, b.coverDetailPath = NULL, "
+            + "b.version = b.version + 1, b.updatedAt = :now WHERE b.coverImagePath = :oldPath")
+    int replaceCoverImagePath(String oldPath, String newPath, Instant now);
+
+    /**
+     * Sets the non-null fields on the given books in one statement without loading them. Only
+     * the genre column is set; {@link #deleteGenres} and {@link #insertGenre} update book_genres.
+     * Hibernate evicts the cached books and the cached queries over them when this runs.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.location = COALESCE(:location, b.location), "
+            + "b.readStatus = COALESCE(:readStatus, b.readStatus), b.rating = COALESCE(:rating, b.rating), "
+            + "b.genre = COALESCE(:genre, b.genre), b.version = b.version + 1, b.updatedAt = :now "
+            + "WHERE b.id IN :ids")
+    int patchAll(Collection<Long> ids, String location, String readStatus, Integer rating, String genre, Instant now);
+
+    /**
+     * Native statements name the table they touch, so that Hibernate evicts only the cached
+     * genre collections and queries over book_genres instead of the whole second-level cache.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM book_genres WHERE book_id IN (:ids)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "book_genres"))
+    int deleteGenres(Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO book_genres (book_id, genre) SELECT id, :genre FROM books WHERE id IN (:ids)",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "book_genres"))
+    int insertGenre(Collection<Long> ids, String genre);
+
+    /** Ids of those of the given books that exist, locked until the transaction ends. */
+    @Query(value = "SELECT id FROM books WHERE id IN (:ids) FOR UPDATE", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "books"))
+    List<Long> lockIdsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT b.id, b.coverImagePath FROM Book b WHERE b.id IN :ids")
+    List<Object[]> findIdsAndCoverImagePaths(Collection<Long> ids);
+
+    /** Deletes the books only; their quotes, memories and genre rows must be deleted first. */
+    @Modifying
+    @Query("DELETE FROM Book b WHERE b.id IN :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
 }
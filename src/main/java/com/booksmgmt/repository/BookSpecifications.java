@@ -0,0 +1,57 @@
+package com.booksmgmt.repository;
+
+import com.booksmgmt.model.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+public final class BookSpecifications {
+
+    private BookSpecifications() {}
+
+    /**
+     * Orders by rating, highest first with unrated books last, then by id. This is the order
+     * keyset cursors are defined against, so {@link #after} must be kept in step with it.
+     */
+    public static Specification<Book> orderedByRating() {
+        return (root, query, cb) -> {
+            query.orderBy(
+                    cb.asc(cb.selectCase().when(cb.isNull(root.get("rating")), 1).otherwise(0)),
+                    cb.desc(root.get("rating")),
+                    cb.asc(root.get("id")));
+            return null;
+        };
+    }
+
+    /** Matches the books that come after the given position in {@link #orderedByRating()} order. */
+    public static Specification<Book> after(Integer rating, Long id) {
+        return (root, query, cb) -> {
+            if (rating == null) {
+                return cb.and(cb.isNull(root.get("rating")), cb.greaterThan(root.get("id"), id));
+            }
+            return cb.or(
+                    cb.lessThan(root.get("rating"), rating),
+                    cb.and(cb.equal(root.get("rating"), rating), cb.greaterThan(root.get("id"), id)),
+                    cb.isNull(root.get("rating")));
+        };
+    }
+
+    public static Specification<Book> hasReadStatus(String readStatus) {
+        return (root, query, cb) -> cb.equal(root.get("readStatus"), readStatus);
+    }
+
+    /** Matches books with no location, or one of spaces only. */
+    public static Specification<Book> missingLocation() {
+        return (root, query, cb) -> cb.or(cb.isNull(root.get("location")),
+                cb.equal(cb.trim(root.get("location")), ""));
+    }
+
+    /** Matches books tagged with the genre, case-insensitively, through the indexed book_genres table. */
+    public static Specification<Book> hasGenre(String genre) {
+        return (root, query, cb) -> cb.equal(root.join("genres"), Book.genreKey(genre));
+    }
+
+    public static Specification<Book> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+}
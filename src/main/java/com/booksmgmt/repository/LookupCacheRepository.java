@@ -0,0 +1,23 @@
+package com.booksmgmt.repository;
+
+import com.booksmgmt.model.LookupCacheEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface LookupCacheRepository extends JpaRepository<LookupCacheEntry, String> {
+
+    List<LookupCacheEntry> findByFetchedAtAfterOrderByFetchedAtDesc(Instant after, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LookupCacheEntry e WHERE e.fetchedAt < :before")
+    int deleteFetchedBefore(Instant before);
+}
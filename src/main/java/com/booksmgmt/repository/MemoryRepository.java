@@ -1,15 +1,49 @@
 package com.booksmgmt.repository;
 
 import com.booksmgmt.model.Memory;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface MemoryRepository extends JpaRepository<Memory, Long> {
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Memory> findByBookIdOrderByCreatedAtDesc(Long bookId);
 
-    void deleteByBookId(Long bookId);
+    /** Memories written after the given instant, through the updatedAt index. */
+    List<Memory> findByUpdatedAtAfter(Instant after);
+
+    @Modifying
+    @Query("DELETE FROM Memory m WHERE m.book.id IN :bookIds")
+    int deleteByBookIdIn(Collection<Long> bookIds);
+
+    @Query("SELECT m.id FROM Memory m WHERE m.book.id = :bookId AND m.id IN :ids")
+    List<Long> findIdsByBookIdAndIdIn(Long bookId, Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Memory m WHERE m.book.id = :bookId AND m.id IN :ids")
+    int deleteByBookIdAndIdIn(Long bookId, Collection<Long> ids);
+
+    /** Forward-only cursor over every memory grouped by book id; must be consumed inside a transaction. */
+    @Query("SELECT m FROM Memory m ORDER BY m.book.id, m.createdAt DESC, m.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<Memory> streamAllOrderByBookId();
+
+    /** Id, book id and content of every memory, for building the search index; must be consumed inside a transaction. */
+    @Query("SELECT m.id, m.book.id, m.content FROM Memory m")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamContent();
 }
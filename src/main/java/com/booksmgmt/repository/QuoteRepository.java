@@ -1,15 +1,49 @@
 package com.booksmgmt.repository;
 
 import com.booksmgmt.model.Quote;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface QuoteRepository extends JpaRepository<Quote, Long> {
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Quote> findByBookIdOrderByPageNumberAsc(Long bookId);
 
-    void deleteByBookId(Long bookId);
+    /** Quotes written after the given instant, through the updatedAt index. */
+    List<Quote> findByUpdatedAtAfter(Instant after);
+
+    @Modifying
+    @Query("DELETE FROM Quote q WHERE q.book.id IN :bookIds")
+    int deleteByBookIdIn(Collection<Long> bookIds);
+
+    @Query("SELECT q.id FROM Quote q WHERE q.book.id = :bookId AND q.id IN :ids")
+    List<Long> findIdsByBookIdAndIdIn(Long bookId, Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Quote q WHERE q.book.id = :bookId AND q.id IN :ids")
+    int deleteByBookIdAndIdIn(Long bookId, Collection<Long> ids);
+
+    /** Forward-only cursor over every quote grouped by book id; must be consumed inside a transaction. */
+    @Query("SELECT q FROM Quote q ORDER BY q.book.id, q.pageNumber, q.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<Quote> streamAllOrderByBookId();
+
+    /** Id, book id and content of every quote, for building the search index; must be consumed inside a transaction. */
+    @Query("SELECT q.id, q.book.id, q.content FROM Quote q")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamContent();
 }
@@ -0,0 +1,52 @@
+package com.booksmgmt.repository;
+
+import com.booksmgmt.model.Tombstone;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+/**
+ * Tombstones are recorded with one statement per delete, selecting the rows that are about to
+ * go, so ids that do not exist leave no tombstone. The statements name their table so that
+ * Hibernate leaves the second-level cache alone.
+ */
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    List<Tombstone> findByDeletedAtAfterOrderByDeletedAt(Instant after);
+
+    @Modifying
+    @Query(value = "INSERT INTO tombstones (entity, entity_id, book_id, deleted_at) "
+            + "SELECT 'book', id, id, :now FROM books WHERE id IN (:ids)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tombstones"))
+    int recordBooks(Collection<Long> ids, Instant now);
+
+    @Modifying
+    @Query(value = "INSERT INTO tombstones (entity, entity_id, book_id, deleted_at) "
+            + "SELECT 'quote', id, book_id, :now FROM quotes WHERE book_id = :bookId AND id IN (:ids)",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tombstones"))
+    int recordQuotes(Long bookId, Collection<Long> ids, Instant now);
+
+    @Modifying
+    @Query(value = "INSERT INTO tombstones (entity, entity_id, book_id, deleted_at) "
+            + "SELECT 'memory', id, book_id, :now FROM memories WHERE book_id = :bookId AND id IN (:ids)",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tombstones"))
+    int recordMemories(Long bookId, Collection<Long> ids, Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Tombstone t WHERE t.deletedAt < :before")
+    int deleteDeletedBefore(Instant before);
+}
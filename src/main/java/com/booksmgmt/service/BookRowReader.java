@@ -0,0 +1,141 @@
+package com.booksmgmt.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads import rows one at a time from an NDJSON or CSV body, so that an import never holds
+ * more than the row being parsed. A row that cannot be parsed is returned with an error instead
+ * of aborting the rest of the stream.
+ */
+public abstract class BookRowReader implements Iterator<BookRowReader.Row> {
+
+    private static final String BOM = "\uFEFF";
+
+    protected final BufferedReader reader;
+    private Row next;
+
+    protected BookRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    public static BookRowReader ndjson(BufferedReader reader, ObjectReader json) {
+        return new BookRowReader(reader) {
+            @Override
+            protected Row read() throws IOException {
+                String line;
+                do {
+                    line = reader.readLine();
+                    if (line == null) return null;
+                } while (line.isBlank());
+                try {
+                    return new Row(json.readValue(line), null);
+                } catch (JsonProcessingException e) {
+                    return new Row(null, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+        };
+    }
+
+    /**
+     * CSV with a header row naming the columns, matched case-insensitively against the
+     * {@link BookService.BookRequest} fields. Unknown columns are ignored.
+     */
+    public static BookRowReader csv(BufferedReader reader) {
+        return new BookRowReader(reader) {
+            private List<String> header;
+
+            @Override
+            protected Row read() throws IOException {
+                if (header == null) {
+                    header = CsvReader.readRecord(reader);
+                    if (header == null) return null;
+                    // Spreadsheet exports often start with a byte order mark.
+                    if (!header.isEmpty() && header.get(0).startsWith(BOM)) {
+                        header.set(0, header.get(0).substring(BOM.length()));
+                    }
+                }
+                List<String> record;
+                do {
+                    record = CsvReader.readRecord(reader);
+                    if (record == null) return null;
+                } while (record.size() == 1 && record.get(0).isEmpty());
+
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < header.size() && i < record.size(); i++) {
+                    String value = record.get(i);
+                    values.put(header.get(i).trim().toLowerCase(Locale.ROOT), value.isEmpty() ? null : value);
+                }
+                try {
+                    return new Row(toRequest(values), null);
+                } catch (NumberFormatException e) {
+                    return new Row(null, "Invalid number: " + e.getMessage());
+                }
+            }
+        };
+    }
+
+    private static BookService.BookRequest toRequest(Map<String, String> values) {
+        BookService.BookRequest req = new BookService.BookRequest();
+        req.title = values.get("title");
+        req.author = values.get("author");
+        req.genre = values.get("genre");
+        req.isbn = values.get("isbn");
+        req.publisher = values.get("publisher");
+        req.year = parseInt(values.get("year"));
+        req.pages = parseInt(values.get("pages"));
+        req.location = values.get("location");
+        req.readStatus = values.get("readstatus");
+        req.rating = parseInt(values.get("rating"));
+        req.notes = values.get("notes");
+        req.coverImageUrl = values.get("coverimageurl");
+        return req;
+    }
+
+    private static Integer parseInt(String value) {
+        return value == null ? null : Integer.valueOf(value.trim());
+    }
+
+    /** Reads the next row, or returns null at the end of the input. */
+    protected abstract Row read() throws IOException;
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Row row = next;
+        next = null;
+        return row;
+    }
+
+    public static class Row {
+        public final BookService.BookRequest request;
+        public final String error;
+
+        public Row(BookService.BookRequest request, String error) {
+            this.request = request;
+            this.error   = error;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.booksmgmt.service;
+
+import com.booksmgmt.model.Book;
+import com.booksmgmt.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over book titles and authors. A case-insensitive substring search
+ * cannot use a database index, so {@link BookService#searchBooks} resolves the search text to
+ * book ids here and leaves the remaining filters to the database.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final BookRepository bookRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Long>> grams = new HashMap<>();
+
+    public BookSearchIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        List<Book> all = bookRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            grams.clear();
+            all.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Book book) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(book.getId());
+            add(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAll(Collection<Book> books) {
+        lock.writeLock().lock();
+        try {
+            for (Book book : books) {
+                removeEntry(book.getId());
+                add(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Returns the ids of the books whose title or author contains the text, ignoring case. */
+    public Set<Long> search(String search) {
+        String text = search.toLowerCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            Set<Long> result = new HashSet<>();
+            for (Long id : candidates(text)) {
+                Entry entry = entries.get(id);
+                if (entry != null && entry.matches(text)) result.add(id);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> candidates(String text) {
+        if (text.length() < GRAM) {
+            // Searches shorter than one trigram cannot use the postings; fall back to the entries.
+            return entries.keySet();
+        }
+
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String gram : grams(text)) {
+            postings.add(grams.getOrDefault(gram, Set.of()));
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.retainAll(postings.get(i));
+        }
+        return result;
+    }
+
+    private void add(Book book) {
+        Entry entry = new Entry(book);
+        entries.put(book.getId(), entry);
+        for (String gram : entry.grams()) {
+            grams.computeIfAbsent(gram, k -> new HashSet<>()).add(book.getId());
+        }
+    }
+
+    private void removeEntry(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) return;
+        for (String gram : entry.grams()) {
+            Set<Long> ids = grams.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) grams.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    private static final class Entry {
+        final String title;
+        final String author;
+
+        Entry(Book book) {
+            this.title = book.getTitle() != null ? book.getTitle().toLowerCase(Locale.ROOT) : "";
+            this.author = book.getAuthor() != null ? book.getAuthor().toLowerCase(Locale.ROOT) : "";
+        }
+
+        boolean matches(String text) {
+            return title.contains(text) || author.contains(text);
+        }
+
+        Set<String> grams() {
+            Set<String> result = BookSearchIndex.grams(title);
+            result.addAll(BookSearchIndex.grams(author));
+            return result;
+        }
+    }
+}
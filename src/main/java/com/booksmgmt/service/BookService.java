@@ -1,113 +1,274 @@
 package com.booksmgmt.service;
 
 import com.booksmgmt.model.Book;
+import com.booksmgmt.model.Memory;
+import com.booksmgmt.model.Quote;
 import com.booksmgmt.repository.BookRepository;
+import com.booksmgmt.repository.BookSpecifications;
 import com.booksmgmt.repository.MemoryRepository;
 import com.booksmgmt.repository.QuoteRepository;
-import org.springframework.beans.factory.annotation.Value;
+import com.booksmgmt.repository.TombstoneRepository;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.LinkedHashMap;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.TreeSet;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 public class BookService {
 
-    private static final List<String> ALLOWED_COVER_PREFIXES = List.of(
-            "https://books.google.com/",
-            "https://covers.openlibrary.org/"
-    );
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int BULK_CHUNK_SIZE = 1000;
+    private static final Set<String> READ_STATUSES = Set.of("READ", "READING", "UNREAD");
+    public static final Set<String> DETAIL_FIELDS = Set.of("book", "quotes", "memories");
 
     private final BookRepository bookRepository;
     private final QuoteRepository quoteRepository;
     private final MemoryRepository memoryRepository;
-    private final Path uploadDir;
+    private final TombstoneRepository tombstoneRepository;
+    private final BookSearchIndex searchIndex;
+    private final ContentSearchIndex contentIndex;
+    private final DuplicateTitleIndex titleIndex;
+    private final LibraryStatsAggregate statsAggregate;
+    private final CoverDownloader coverDownloader;
+    private final CoverThumbnails coverThumbnails;
+    private final CoverStore coverStore;
+    private final LibraryVersion libraryVersion;
+    private final ChangeFeed changeFeed;
+    private final TransactionTemplate writes;
+    private final Timer searchTimer;
+    private final Timer pageSearchTimer;
+    private final DistributionSummary searchRows;
+    private final DistributionSummary pageSearchRows;
 
     public BookService(BookRepository bookRepository,
                        QuoteRepository quoteRepository,
                        MemoryRepository memoryRepository,
-                       @Value("${app.upload.dir:./uploads/covers}") String uploadPath) {
+                       TombstoneRepository tombstoneRepository,
+                       BookSearchIndex searchIndex,
+                       ContentSearchIndex contentIndex,
+                       DuplicateTitleIndex titleIndex,
+                       LibraryStatsAggregate statsAggregate,
+                       CoverDownloader coverDownloader,
+                       CoverThumbnails coverThumbnails,
+                       CoverStore coverStore,
+                       LibraryVersion libraryVersion,
+                       ChangeFeed changeFeed,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
         this.bookRepository = bookRepository;
         this.quoteRepository = quoteRepository;
         this.memoryRepository = memoryRepository;
-        this.uploadDir = Paths.get(uploadPath).toAbsolutePath().normalize();
-        try {
-            Files.createDirectories(this.uploadDir);
-        } catch (IOException e) {
-            throw new RuntimeException("Could not create upload directory", e);
-        }
+        this.tombstoneRepository = tombstoneRepository;
+        this.searchIndex = searchIndex;
+        this.contentIndex = contentIndex;
+        this.titleIndex = titleIndex;
+        this.statsAggregate = statsAggregate;
+        this.coverDownloader = coverDownloader;
+        this.coverThumbnails = coverThumbnails;
+        this.coverStore = coverStore;
+        this.libraryVersion = libraryVersion;
+        this.changeFeed = changeFeed;
+        this.writes = new TransactionTemplate(transactionManager);
+        this.searchTimer = searchTimer(meterRegistry, false);
+        this.pageSearchTimer = searchTimer(meterRegistry, true);
+        this.searchRows = searchRows(meterRegistry, false);
+        this.pageSearchRows = searchRows(meterRegistry, true);
+    }
+
+    private static Timer searchTimer(MeterRegistry registry, boolean paged) {
+        return Timer.builder("books.search")
+                .description("Time to find and load the books matching a search")
+                .tag("paged", String.valueOf(paged))
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static DistributionSummary searchRows(MeterRegistry registry, boolean paged) {
+        return DistributionSummary.builder("books.search.rows")
+                .description("Books loaded from the database per search")
+                .tag("paged", String.valueOf(paged))
+                .publishPercentileHistogram()
+                .register(registry);
     }
 
     public Optional<Book> findById(Long id) {
         return bookRepository.findById(id);
     }
 
+    /**
+     * Loads a book with its quotes and memories in one read-only transaction. Only the parts
+     * named in {@code fields} ({@link #DETAIL_FIELDS}) are loaded; an empty set means all.
+     */
+    @Transactional(readOnly = true)
+    public Optional<BookDetail> getBookDetail(Long id, Set<String> fields) {
+        Set<String> include = fields.isEmpty() ? DETAIL_FIELDS : fields;
+        if (!DETAIL_FIELDS.containsAll(include)) {
+            throw new IllegalArgumentException("Fields must be among book, quotes and memories.");
+        }
+        return bookRepository.findById(id).map(book -> new BookDetail(
+                include.contains("book") ? book : null,
+                include.contains("quotes") ? quoteRepository.findByBookIdOrderByPageNumberAsc(id) : null,
+                include.contains("memories") ? memoryRepository.findByBookIdOrderByCreatedAtDesc(id) : null));
+    }
+
     public List<Book> searchBooks(String search, String genre, String readStatus, boolean noLocation) {
-        List<Book> books = bookRepository.findAllSortedByRating();
-
-        return books.stream()
-                .filter(b -> search == null || search.isEmpty()
-                        || (b.getTitle() != null && b.getTitle().toLowerCase().contains(search.toLowerCase()))
-                        || (b.getAuthor() != null && b.getAuthor().toLowerCase().contains(search.toLowerCase())))
-                .filter(b -> {
-                    if (genre == null || genre.isEmpty()) return true;
-                    if (b.getGenre() == null) return false;
-                    return Arrays.stream(b.getGenre().split(","))
-                            .map(String::trim)
-                            .anyMatch(g -> g.equalsIgnoreCase(genre));
-                })
-                .filter(b -> readStatus == null || readStatus.isEmpty() || readStatus.equals(b.getReadStatus()))
-                .filter(b -> !noLocation || (b.getLocation() == null || b.getLocation().isBlank()))
-                .collect(Collectors.toList());
+        List<Book> books = searchTimer.record(() -> findBooks(search, genre, readStatus, noLocation));
+        searchRows.record(books.size());
+        return books;
+    }
+
+    private List<Book> findBooks(String search, String genre, String readStatus, boolean noLocation) {
+        if (isUnfiltered(search, genre, readStatus, noLocation)) {
+            return bookRepository.findAllSortedByRating();
+        }
+        return filters(search, genre, readStatus, noLocation)
+                .map(filter -> bookRepository.findAll(BookSpecifications.orderedByRating().and(filter)))
+                .orElse(List.of());
+    }
+
+    /**
+     * Returns one page of {@link #searchBooks} results. {@code after} is the cursor of the last
+     * book of the previous page, or null for the first page.
+     */
+    public BookPage searchBooksPage(String search, String genre, String readStatus, boolean noLocation,
+                                    int limit, String after) {
+        BookPage page = pageSearchTimer.record(() -> findPage(search, genre, readStatus, noLocation, limit, after));
+        pageSearchRows.record(page.items.size());
+        return page;
+    }
+
+    private BookPage findPage(String search, String genre, String readStatus, boolean noLocation,
+                              int limit, String after) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Specification<Book> spec = BookSpecifications.orderedByRating();
+
+        if (after != null && !after.isEmpty()) {
+            int sep = after.indexOf(':');
+            try {
+                if (sep < 0) throw new NumberFormatException();
+                Integer rating = sep > 0 ? Integer.valueOf(after.substring(0, sep)) : null;
+                Long id = Long.valueOf(after.substring(sep + 1));
+                spec = spec.and(BookSpecifications.after(rating, id));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+        }
+
+        Optional<Specification<Book>> filter = filters(search, genre, readStatus, noLocation);
+        if (filter.isEmpty()) return new BookPage(List.of(), null);
+        Specification<Book> query = spec.and(filter.get());
+
+        List<Book> books = bookRepository.findBy(query, q -> q.limit(pageSize + 1).all());
+        if (books.size() <= pageSize) return new BookPage(books, null);
+
+        List<Book> page = books.subList(0, pageSize);
+        Book last = page.get(pageSize - 1);
+        String next = (last.getRating() != null ? last.getRating().toString() : "") + ":" + last.getId();
+        return new BookPage(page, next);
+    }
+
+    private static boolean isUnfiltered(String search, String genre, String readStatus, boolean noLocation) {
+        return (search == null || search.isEmpty()) && (genre == null || genre.isEmpty())
+                && (readStatus == null || readStatus.isEmpty()) && !noLocation;
+    }
+
+    /**
+     * Builds the database filters for a search. The search text is resolved to ids through the
+     * in-memory index; an empty result means nothing can match.
+     */
+    private Optional<Specification<Book>> filters(String search, String genre, String readStatus, boolean noLocation) {
+        Specification<Book> spec = Specification.where(null);
+        if (search != null && !search.isEmpty()) {
+            Set<Long> ids = searchIndex.search(search);
+            if (ids.isEmpty()) return Optional.empty();
+            spec = spec.and(BookSpecifications.idIn(ids));
+        }
+        if (genre != null && !genre.isBlank()) spec = spec.and(BookSpecifications.hasGenre(genre));
+        if (readStatus != null && !readStatus.isEmpty()) spec = spec.and(BookSpecifications.hasReadStatus(readStatus));
+        if (noLocation) spec = spec.and(BookSpecifications.missingLocation());
+        return Optional.of(spec);
     }
 
     public List<Book> getMissingLocationBooks() {
         return bookRepository.findBooksWithMissingLocation();
     }
 
+    /**
+     * Applies the patch's non-null fields to the given books with set-based updates, in chunks
+     * of {@value #BULK_CHUNK_SIZE} ids, without loading any of them. Each chunk's existing rows
+     * are locked first, so the ids patched in memory and published once committed are exactly
+     * the rows the update changed. Returns the count the database reported for the updates.
+     */
     @Transactional
-    public int bulkUpdateLocation(List<Long> ids, String location) {
-        List<Book> books = bookRepository.findAllById(ids);
-        books.forEach(b -> b.setLocation(location));
-        bookRepository.saveAll(books);
-        return books.size();
+    public int bulkPatch(List<Long> ids, BookPatch patch) {
+        if (patch.readStatus != null && !READ_STATUSES.contains(patch.readStatus)) {
+            throw new IllegalArgumentException("Read status must be READ, READING or UNREAD.");
+        }
+        if (patch.rating != null && (patch.rating < 1 || patch.rating > 5)) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5.");
+        }
+        if (patch.location == null && patch.readStatus == null && patch.rating == null && patch.genre == null) {
+            throw new IllegalArgumentException("Nothing to update.");
+        }
+
+        List<Long> distinct = ids.stream().distinct().toList();
+        List<String> genreKeys = patch.genre != null
+                ? Book.splitGenres(patch.genre).stream().map(Book::genreKey).distinct().toList()
+                : List.of();
+        Instant now = Instant.now();
+        List<Long> updatedIds = new ArrayList<>();
+        int updated = 0;
+        for (int from = 0; from < distinct.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = bookRepository.lockIdsByIdIn(
+                    distinct.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinct.size())));
+            if (chunk.isEmpty()) continue;
+            updated += bookRepository.patchAll(chunk, patch.location, patch.readStatus, patch.rating, patch.genre, now);
+            if (patch.genre != null) {
+                bookRepository.deleteGenres(chunk);
+                for (String key : genreKeys) bookRepository.insertGenre(chunk, key);
+            }
+            updatedIds.addAll(chunk);
+        }
+        if (!updatedIds.isEmpty()) {
+            AfterCommit.run(() -> {
+                statsAggregate.patch(updatedIds, patch.readStatus, patch.genre);
+                libraryVersion.bump();
+                Map<String, Object> fields = patch.fields();
+                updatedIds.forEach(id -> changeFeed.publish(ChangeFeed.Entity.BOOK, ChangeFeed.Type.UPDATED, id, id, fields));
+            });
+        }
+        return updated;
     }
 
     public List<String> getDistinctGenres() {
-        return bookRepository.findAll().stream()
-                .map(Book::getGenre)
-                .filter(g -> g != null && !g.isEmpty())
-                .flatMap(g -> Arrays.stream(g.split(",")))
-                .map(String::trim)
-                .filter(g -> !g.isEmpty())
-                .collect(Collectors.toCollection(TreeSet::new))
-                .stream().toList();
+        return statsAggregate.genreNames();
     }
 
     public Book createBook(String title, String author, String genre, String isbn,
                            String publisher, Integer year, Integer pages, String location,
                            String readStatus, Integer rating, String notes,
                            MultipartFile coverImage, String coverImageUrl) throws IOException {
-        if (bookRepository.existsByTitleIgnoreCase(title)) {
+        if (titleIndex.containsTitle(title, null)) {
             throw new IllegalArgumentException("A book with this title already exists.");
         }
 
@@ -127,49 +288,158 @@ public class BookService {
         if (coverImage != null && !coverImage.isEmpty()) {
             book.setCoverImagePath(saveImage(coverImage));
         } else if (coverImageUrl != null && !coverImageUrl.isEmpty()) {
-            String saved = downloadImage(coverImageUrl);
+            String saved = coverDownloader.download(coverImageUrl);
             if (saved != null) book.setCoverImagePath(saved);
         }
 
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        AfterCommit.run(() -> {
+            searchIndex.put(saved);
+            titleIndex.put(saved);
+            statsAggregate.put(saved);
+            libraryVersion.bump();
+            changeFeed.publish(ChangeFeed.Entity.BOOK, ChangeFeed.Type.CREATED, saved.getId(), saved.getId(), saved);
+            coverThumbnails.generate(saved.getId(), saved.getCoverImagePath());
+        });
+        return saved;
     }
 
+    /**
+     * Saves all books in one transaction. Cover URLs are not fetched inline: once the books are
+     * committed their covers are downloaded in the background, and the returned batch id can be
+     * used to follow the progress.
+     */
     @Transactional
-    public List<Book> createBooks(List<BookRequest> requests) {
+    public BookBatch createBooks(List<BookRequest> requests) {
         List<Book> saved = new ArrayList<>();
+        Map<Long, String> coverUrls = new HashMap<>();
+        Set<String> batchTitles = new HashSet<>();
         for (BookRequest req : requests) {
-            if (bookRepository.existsByTitleIgnoreCase(req.title)) {
+            if (!batchTitles.add(DuplicateTitleIndex.normalize(req.title)) || titleIndex.containsTitle(req.title, null)) {
                 throw new IllegalArgumentException("A book with this title already exists: " + req.title);
             }
-            Book book = new Book();
-            book.setTitle(req.title);
-            book.setAuthor(req.author);
-            book.setGenre(req.genre);
-            book.setIsbn(req.isbn);
-            book.setPublisher(req.publisher);
-            book.setYear(req.year);
-            book.setPages(req.pages);
-            book.setLocation(req.location);
-            book.setReadStatus(req.readStatus != null ? req.readStatus : "UNREAD");
-            book.setRating(req.rating);
-            book.setNotes(req.notes);
-
+            Book book = bookRepository.save(toBook(req));
+            saved.add(book);
             if (req.coverImageUrl != null && !req.coverImageUrl.isEmpty()) {
-                String path = downloadImage(req.coverImageUrl);
-                if (path != null) book.setCoverImagePath(path);
+                coverUrls.put(book.getId(), req.coverImageUrl);
             }
+        }
 
-            saved.add(bookRepository.save(book));
+        CoverDownloader.Batch covers = coverDownloader.newBatch(coverUrls);
+        AfterCommit.run(() -> {
+            searchIndex.putAll(saved);
+            titleIndex.putAll(saved);
+            statsAggregate.putAll(saved);
+            libraryVersion.bump();
+            saved.forEach(book -> changeFeed.publish(ChangeFeed.Entity.BOOK, ChangeFeed.Type.CREATED, book.getId(), book.getId(), book));
+            coverDownloader.start(covers, this::attachDownloadedCover);
+        });
+        return new BookBatch(saved, covers.id);
+    }
+
+    /**
+     * Saves one chunk of an import in its own transaction, without duplicate checks; callers
+     * filter duplicates beforehand with {@link #findAllTitles}. Covers are fetched in the
+     * background after commit. No changes are published; the import announces itself once done.
+     */
+    @Transactional
+    public List<Book> saveImported(List<BookRequest> requests) {
+        List<Book> books = bookRepository.saveAll(requests.stream().map(this::toBook).toList());
+
+        Map<Long, String> coverUrls = new HashMap<>();
+        for (int i = 0; i < books.size(); i++) {
+            String url = requests.get(i).coverImageUrl;
+            if (url != null && !url.isEmpty()) coverUrls.put(books.get(i).getId(), url);
         }
-        return saved;
+        CoverDownloader.Batch covers = coverDownloader.newBatch(coverUrls);
+        AfterCommit.run(() -> {
+            searchIndex.putAll(books);
+            titleIndex.putAll(books);
+            statsAggregate.putAll(books);
+            libraryVersion.bump();
+            coverDownloader.start(covers, this::attachDownloadedCover);
+        });
+        return books;
+    }
+
+    /** Returns the titles of all books, as {@link DuplicateTitleIndex#normalize normalized}. */
+    public Set<String> findAllTitles() {
+        return titleIndex.normalizedTitles();
+    }
+
+    /** Books whose title is the same as or a few typos away from the given one, closest first. */
+    public List<DuplicateTitleIndex.Candidate> findSimilarTitles(String title, Long excludeId) {
+        return titleIndex.candidates(title, excludeId);
+    }
+
+    private Book toBook(BookRequest req) {
+        Book book = new Book();
+        book.setTitle(req.title);
+        book.setAuthor(req.author);
+        book.setGenre(req.genre);
+        book.setIsbn(req.isbn);
+        book.setPublisher(req.publisher);
+        book.setYear(req.year);
+        book.setPages(req.pages);
+        book.setLocation(req.location);
+        book.setReadStatus(req.readStatus != null ? req.readStatus : "UNREAD");
+        book.setRating(req.rating);
+        book.setNotes(req.notes);
+        return book;
+    }
+
+    private void attachDownloadedCover(Long bookId, String path) {
+        Boolean attached = writes.execute(status -> bookRepository.findByIdForUpdate(bookId)
+                .map(book -> {
+                    book.setCoverImagePath(path);
+                    book.setCoverThumbPath(null);
+                    book.setCoverDetailPath(null);
+                    return true;
+                })
+                .orElse(false));
+        if (!Boolean.TRUE.equals(attached)) {
+            // The book was deleted while its cover was downloading.
+            coverStore.release(path);
+            return;
+        }
+        libraryVersion.bump();
+        Map<String, Object> cover = new HashMap<>();
+        cover.put("coverImagePath", path);
+        cover.put("coverThumbPath", null);
+        cover.put("coverDetailPath", null);
+        changeFeed.publish(ChangeFeed.Entity.BOOK, ChangeFeed.Type.UPDATED, bookId, bookId, cover);
+        coverThumbnails.generate(bookId, path);
+    }
+
+    public Optional<CoverDownloader.Batch> getCoverDownloads(String batchId) {
+        return coverDownloader.findBatch(batchId);
+    }
+
+    /**
+     * Moves legacy covers to content-addressed storage, merging identical files, and removes
+     * unreferenced ones. Variants of repointed books are regenerated in the background.
+     */
+    public CoverStore.CompactionReport compactCovers() throws IOException {
+        CoverStore.CompactionReport report = coverStore.compact();
+        libraryVersion.bump();
+        changeFeed.reset();
+        coverThumbnails.backfill();
+        return report;
     }
 
+    /**
+     * Updates the book, provided it is still at {@code version} when one is given. A book changed
+     * since, here or by a concurrent update, fails with {@link OptimisticLockingFailureException}.
+     */
     public Book updateBook(Long id, String title, String author, String genre, String isbn,
                            String publisher, Integer year, Integer pages, String location,
                            String readStatus, Integer rating, String notes,
-                           MultipartFile coverImage, String coverImageUrl) throws IOException {
+                           MultipartFile coverImage, String coverImageUrl, Long version) throws IOException {
         Book book = bookRepository.findById(id).orElse(null);
         if (book == null) return null;
+        if (version != null && !version.equals(book.getVersion())) {
+            throw new OptimisticLockingFailureException("Book " + id + " is no longer at version " + version);
+        }
 
         book.setTitle(title);
         book.setAuthor(author);
@@ -183,125 +453,94 @@ public class BookService {
         book.setRating(rating);
         book.setNotes(notes);
 
+        String previousCover = book.getCoverImagePath();
         if (coverImage != null && !coverImage.isEmpty()) {
-            deleteImageFile(book.getCoverImagePath());
             book.setCoverImagePath(saveImage(coverImage));
         } else if (coverImageUrl != null && !coverImageUrl.isEmpty() && book.getCoverImagePath() == null) {
-            String saved = downloadImage(coverImageUrl);
+            String saved = coverDownloader.download(coverImageUrl);
             if (saved != null) {
                 book.setCoverImagePath(saved);
             }
         }
+        boolean coverChanged = !Objects.equals(previousCover, book.getCoverImagePath());
+        if (coverChanged) {
+            book.setCoverThumbPath(null);
+            book.setCoverDetailPath(null);
+        }
 
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        AfterCommit.run(() -> {
+            searchIndex.put(saved);
+            titleIndex.put(saved);
+            statsAggregate.put(saved);
+            libraryVersion.bump();
+            changeFeed.publish(ChangeFeed.Entity.BOOK, ChangeFeed.Type.UPDATED, saved.getId(), saved.getId(), saved);
+            if (coverChanged) {
+                coverStore.release(previousCover);
+                coverThumbnails.generate(saved.getId(), saved.getCoverImagePath());
+            }
+        });
+        return saved;
     }
 
     @Transactional
     public boolean deleteBook(Long id) {
-        return bookRepository.findById(id).map(book -> {
-            quoteRepository.deleteByBookId(id);
-            memoryRepository.deleteByBookId(id);
-            deleteImageFile(book.getCoverImagePath());
-            bookRepository.delete(book);
-            return true;
-        }).orElse(false);
+        return deleteBooks(List.of(id)) > 0;
     }
 
-    public String saveImage(MultipartFile file) throws IOException {
-        String originalName = file.getOriginalFilename();
-        String extension = "";
-        if (originalName != null && originalName.contains(".")) {
-            extension = originalName.substring(originalName.lastIndexOf("."));
+    /**
+     * Deletes the books with their quotes, memories and genre rows using one statement per
+     * table and chunk, never loading the children. Covers no longer used by any book are
+     * removed in the background once the deletion is committed. Returns how many books the
+     * database deleted.
+     */
+    @Transactional
+    public int deleteBooks(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        List<Long> deletedIds = new ArrayList<>();
+        List<String> covers = new ArrayList<>();
+        Instant now = Instant.now();
+        int deleted = 0;
+        for (int from = 0; from < distinct.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinct.size()));
+            for (Object[] row : bookRepository.findIdsAndCoverImagePaths(chunk)) {
+                deletedIds.add((Long) row[0]);
+                if (row[1] != null) covers.add((String) row[1]);
+            }
+            tombstoneRepository.recordBooks(chunk, now);
+            quoteRepository.deleteByBookIdIn(chunk);
+            memoryRepository.deleteByBookIdIn(chunk);
+            bookRepository.deleteGenres(chunk);
+            deleted += bookRepository.deleteAllByIdIn(chunk);
         }
+        if (deleted > 0) {
+            AfterCommit.run(() -> {
+                deletedIds.forEach(id -> {
+                    searchIndex.remove(id);
+                    titleIndex.remove(id);
+                    statsAggregate.remove(id);
+                });
+                contentIndex.removeBooks(deletedIds);
+                libraryVersion.bump();
+                deletedIds.forEach(id -> changeFeed.publish(ChangeFeed.Entity.BOOK, ChangeFeed.Type.DELETED, id, id, null));
+                coverStore.releaseLater(covers);
+            });
+        }
+        return deleted;
+    }
 
+    public String saveImage(MultipartFile file) throws IOException {
         String contentType = file.getContentType();
         if (contentType == null || (!contentType.equals("image/jpeg") && !contentType.equals("image/png"))) {
             throw new IllegalArgumentException("Only JPEG and PNG images are accepted");
         }
-
-        String filename = UUID.randomUUID() + extension;
-        Path targetPath = uploadDir.resolve(filename).normalize();
-        if (!targetPath.startsWith(uploadDir)) {
-            throw new IllegalArgumentException("Invalid file path");
-        }
-        Files.copy(file.getInputStream(), targetPath);
-        return "/uploads/covers/" + filename;
-    }
-
-    public String downloadImage(String imageUrl) {
-        try {
-            if (ALLOWED_COVER_PREFIXES.stream().noneMatch(imageUrl::startsWith)) {
-                return null;
-            }
-            HttpClient client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build();
-            HttpRequest request = HttpRequest.newBuilder().uri(URI.create(imageUrl)).build();
-            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
-            if (response.statusCode() != 200) return null;
-
-            String contentType = response.headers().firstValue("content-type").orElse("");
-            String extension;
-            if (contentType.contains("png")) {
-                extension = ".png";
-            } else {
-                extension = ".jpg";
-            }
-
-            String filename = UUID.randomUUID() + extension;
-            Path targetPath = uploadDir.resolve(filename).normalize();
-            if (!targetPath.startsWith(uploadDir)) return null;
-
-            Files.copy(response.body(), targetPath);
-            return "/uploads/covers/" + filename;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    public void deleteImageFile(String imagePath) {
-        if (imagePath != null) {
-            try {
-                String filename = imagePath.substring(imagePath.lastIndexOf("/") + 1);
-                Path filePath = uploadDir.resolve(filename).normalize();
-                if (filePath.startsWith(uploadDir)) {
-                    Files.deleteIfExists(filePath);
-                }
-            } catch (IOException ignored) {
-            }
+        try (InputStream in = file.getInputStream()) {
+            return coverStore.store(in, contentType.equals("image/png") ? ".png" : ".jpg");
         }
     }
 
     public LibraryStats getStats() {
-        List<Book> all = bookRepository.findAll();
-
-        long total   = all.size();
-        long read    = all.stream().filter(b -> "READ".equals(b.getReadStatus())).count();
-        long reading = all.stream().filter(b -> "READING".equals(b.getReadStatus())).count();
-        long unread  = all.stream().filter(b -> "UNREAD".equals(b.getReadStatus())).count();
-
-        Map<String, Long> byGenre = all.stream()
-            .map(Book::getGenre)
-            .filter(g -> g != null && !g.isEmpty())
-            .flatMap(g -> Arrays.stream(g.split(",")))
-            .map(String::trim)
-            .filter(g -> !g.isEmpty())
-            .collect(Collectors.groupingBy(g -> g, Collectors.counting()))
-            .entrySet().stream()
-            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
-                .thenComparing(Map.Entry.comparingByKey()))
-            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
-                (a, b) -> a, LinkedHashMap::new));
-
-        Map<String, Long> topAuthors = all.stream()
-            .filter(b -> b.getAuthor() != null && !b.getAuthor().isBlank())
-            .collect(Collectors.groupingBy(Book::getAuthor, Collectors.counting()))
-            .entrySet().stream()
-            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
-                .thenComparing(Map.Entry.comparingByKey()))
-            .limit(8)
-            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
-                (a, b) -> a, LinkedHashMap::new));
-
-        return new LibraryStats(total, read, reading, unread, byGenre, topAuthors);
+        return statsAggregate.get();
     }
 
     public static class LibraryStats {
@@ -323,6 +562,57 @@ public class BookService {
         }
     }
 
+    public static class BookPage {
+        public final List<Book> items;
+        public final String nextCursor;
+
+        public BookPage(List<Book> items, String nextCursor) {
+            this.items      = items;
+            this.nextCursor = nextCursor;
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class BookDetail {
+        public final Book book;
+        public final List<Quote> quotes;
+        public final List<Memory> memories;
+
+        public BookDetail(Book book, List<Quote> quotes, List<Memory> memories) {
+            this.book     = book;
+            this.quotes   = quotes;
+            this.memories = memories;
+        }
+    }
+
+    public static class BookBatch {
+        public final List<Book> books;
+        public final String coverDownloadId;
+
+        public BookBatch(List<Book> books, String coverDownloadId) {
+            this.books           = books;
+            this.coverDownloadId = coverDownloadId;
+        }
+    }
+
+    /** Fields to set on many books at once; null fields are left as they are. */
+    public static class BookPatch {
+        public String location;
+        public String readStatus;
+        public Integer rating;
+        public String genre;
+
+        /** The fields this patch sets, by name. */
+        Map<String, Object> fields() {
+            Map<String, Object> fields = new HashMap<>();
+            if (location != null) fields.put("location", location);
+            if (readStatus != null) fields.put("readStatus", readStatus);
+            if (rating != null) fields.put("rating", rating);
+            if (genre != null) fields.put("genre", genre);
+            return fields;
+        }
+    }
+
     public static class BookRequest {
         public String title;
         public String author;
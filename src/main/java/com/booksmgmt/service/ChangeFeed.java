@@ -0,0 +1,246 @@
+package com.booksmgmt.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Streams committed changes to books, quotes and memories to clients as server-sent events,
+ * so open pages can patch what they show instead of reloading it. Every change gets the next
+ * number of a sequence that starts from the clock, and the latest {@code app.changes.buffer-size}
+ * are kept so a reconnecting client can resume from the last one it saw. A client whose
+ * position is no longer buffered, or is from before a restart, is told to reset and reload.
+ * <p>
+ * One thread owns the buffer and the subscribers and hands changes out in sequence order;
+ * publishers only number the change and queue it. Each subscriber has its own thread writing
+ * to the connection from a queue of at most {@code app.changes.client-queue} events, so a slow
+ * client holds up nobody else. A client that falls that far behind is told to reset and is
+ * disconnected.
+ */
+@Component
+public class ChangeFeed {
+
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(30);
+    /** Queued after a subscriber's last event to end its stream. */
+    private static final Supplier<SseEmitter.SseEventBuilder> CLOSE = SseEmitter::event;
+    private static final Supplier<SseEmitter.SseEventBuilder> HEARTBEAT = () -> SseEmitter.event().comment("heartbeat");
+
+    public enum Entity { BOOK, QUOTE, MEMORY }
+
+    public enum Type { CREATED, UPDATED, DELETED, RESET }
+
+    private final int bufferSize;
+    private final int clientQueue;
+    private final long timeoutMillis;
+    private final ScheduledExecutorService executor;
+    private final ExecutorService senders;
+    /** Owned by the executor's thread. */
+    private final Deque<Change> buffer = new ArrayDeque<>();
+    /** Owned by the executor's thread. */
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    /** Owned by the executor's thread: the sequence number of the newest buffered change. */
+    private long delivered;
+    /** Guarded by this. */
+    private long sequence;
+
+    public ChangeFeed(@Value("${app.changes.buffer-size:1000}") int bufferSize,
+                      @Value("${app.changes.client-queue:1000}") int clientQueue,
+                      @Value("${app.changes.timeout:30m}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.clientQueue = Math.max(clientQueue, 2);
+        this.timeoutMillis = timeout.toMillis();
+        this.sequence = System.currentTimeMillis();
+        this.delivered = sequence;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "change-feed");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "change-feed-sender-" + senderCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        long heartbeat = HEARTBEAT_INTERVAL.toMillis();
+        executor.scheduleAtFixedRate(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.execute(() -> {
+            subscribers.forEach(subscriber -> subscriber.close(null));
+            subscribers.clear();
+        });
+        executor.shutdown();
+        senders.shutdown();
+    }
+
+    /**
+     * Publishes a change; callers inside a transaction do so once it has committed.
+     * {@code data} is the entity as it now is, or for updates of a few fields a map of just
+     * those fields.
+     */
+    public void publish(Entity entity, Type type, Long id, Long bookId, Object data) {
+        synchronized (this) {
+            Change change = new Change(++sequence, entity, type, id, bookId, data);
+            executor.execute(() -> deliver(change));
+        }
+    }
+
+    /** Tells every client that the library changed in ways not worth describing one by one. */
+    public void reset() {
+        publish(null, Type.RESET, null, null, null);
+    }
+
+    /**
+     * Streams changes after {@code since}, replaying the buffered ones first. Without a
+     * position the stream starts with the changes to come; either way its first event carries
+     * the position it starts from.
+     */
+    public SseEmitter subscribe(Long since) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscriber));
+        senders.execute(subscriber);
+        executor.execute(() -> start(subscriber, since));
+        return emitter;
+    }
+
+    private void start(Subscriber subscriber, Long since) {
+        if (subscriber.closed) return;
+        if (since == null || since == delivered) {
+            String position = String.valueOf(delivered);
+            subscriber.offer(() -> SseEmitter.event().name("ready").id(position).data(""));
+        } else if (!buffer.isEmpty() && since >= buffer.peekFirst().seq - 1 && since < delivered
+                && delivered - since <= clientQueue) {
+            for (Change change : buffer) {
+                if (change.seq > since) subscriber.offer(() -> event(change));
+            }
+        } else {
+            subscriber.offer(resetEvent());
+        }
+        subscribers.add(subscriber);
+    }
+
+    private void deliver(Change change) {
+        buffer.addLast(change);
+        if (buffer.size() > bufferSize) buffer.removeFirst();
+        delivered = change.seq;
+        subscribers.removeIf(subscriber -> !subscriber.offer(() -> event(change)));
+    }
+
+    /** Keeps idle connections open through proxies and finds the clients that went away. */
+    private void heartbeat() {
+        subscribers.removeIf(subscriber -> !subscriber.offer(HEARTBEAT));
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (executor.isShutdown()) return;
+        executor.execute(() -> {
+            subscribers.remove(subscriber);
+            subscriber.close(null);
+        });
+    }
+
+    private Supplier<SseEmitter.SseEventBuilder> resetEvent() {
+        Change reset = new Change(delivered, null, Type.RESET, null, null, null);
+        return () -> event(reset);
+    }
+
+    private static SseEmitter.SseEventBuilder event(Change change) {
+        return SseEmitter.event().name("change").id(String.valueOf(change.seq))
+                .data(change, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * One client's connection and the events queued for it, sent by a thread of its own. Events
+     * are queued as suppliers and built by the sender, since a built event may not be shared.
+     */
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Supplier<SseEmitter.SseEventBuilder>> queue = new ArrayBlockingQueue<>(clientQueue);
+        /** Owned by the executor's thread. */
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queues an event, or, if the client is a whole queue behind, replaces what it has not
+         * been sent with a reset and ends its stream. Returns whether it is still subscribed.
+         */
+        boolean offer(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (queue.offer(event)) return true;
+            close(resetEvent());
+            return false;
+        }
+
+        /** Ends the stream once the sender is through, after {@code last} if given. */
+        void close(Supplier<SseEmitter.SseEventBuilder> last) {
+            if (closed) return;
+            closed = true;
+            queue.clear();
+            if (last != null) queue.offer(last);
+            queue.offer(CLOSE);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Supplier<SseEmitter.SseEventBuilder> event = queue.take();
+                    if (event == CLOSE) break;
+                    emitter.send(event.get());
+                }
+                emitter.complete();
+            } catch (InterruptedException e) {
+                emitter.complete();
+            } catch (IOException | RuntimeException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Change {
+        public final long seq;
+        public final String entity;
+        public final String type;
+        public final Long id;
+        /** The book changed, or the book of the quote or memory changed. */
+        public final Long bookId;
+        public final Object data;
+
+        public Change(long seq, Entity entity, Type type, Long id, Long bookId, Object data) {
+            this.seq    = seq;
+            this.entity = entity != null ? entity.name().toLowerCase(Locale.ROOT) : null;
+            this.type   = type.name().toLowerCase(Locale.ROOT);
+            this.id     = id;
+            this.bookId = bookId;
+            this.data   = data;
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.booksmgmt.service;
+
+import com.booksmgmt.model.Memory;
+import com.booksmgmt.model.Quote;
+import com.booksmgmt.repository.MemoryRepository;
+import com.booksmgmt.repository.QuoteRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over the content of quotes and memories, ranked with BM25. Every
+ * indexed quote or memory occupies a slot, and each term keeps the slots it occurs in with its
+ * frequency there, in slot order. Replacing or removing an entry only marks its slot dead and
+ * takes it out of its terms' document frequencies; searches skip dead slots and the postings
+ * are compacted once dead slots outnumber live ones. The text itself is not kept, so callers
+ * load the content of the hits they show.
+ */
+@Component
+public class ContentSearchIndex {
+
+    public enum Kind { QUOTE, MEMORY }
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_DEAD_TO_COMPACT = 1024;
+
+    private final QuoteRepository quoteRepository;
+    private final MemoryRepository memoryRepository;
+    private final TransactionTemplate readOnly;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final Map<Long, Integer> slotsByKey = new HashMap<>();
+    /** Per slot: id and kind packed as {@code id << 1 | kind}, book id, and term count or -1 once dead. */
+    private long[] keys = new long[1024];
+    private long[] bookIds = new long[1024];
+    private int[] lengths = new int[1024];
+    /** Per slot: the postings of its terms, until it dies. */
+    private Postings[][] slotTerms = new Postings[1024][];
+    private int slots;
+    private int live;
+    private long totalLength;
+
+    public ContentSearchIndex(QuoteRepository quoteRepository,
+                              MemoryRepository memoryRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.quoteRepository = quoteRepository;
+        this.memoryRepository = memoryRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    /** Reads id, book and content only, so the catalog's entities are never loaded at once. */
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            slotsByKey.clear();
+            Arrays.fill(slotTerms, null);
+            slots = 0;
+            live = 0;
+            totalLength = 0;
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = quoteRepository.streamContent()) {
+                    rows.forEach(r -> add(Kind.QUOTE, (Long) r[0], (Long) r[1], (String) r[2]));
+                }
+                try (Stream<Object[]> rows = memoryRepository.streamContent()) {
+                    rows.forEach(r -> add(Kind.MEMORY, (Long) r[0], (Long) r[1], (String) r[2]));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Quote quote) {
+        putQuotes(List.of(quote));
+    }
+
+    public void put(Memory memory) {
+        putMemories(List.of(memory));
+    }
+
+    public void putQuotes(Collection<Quote> quotes) {
+        lock.writeLock().lock();
+        try {
+            for (Quote quote : quotes) {
+                replace(Kind.QUOTE, quote.getId(), quote.getBook().getId(), quote.getContent());
+            }
+            maybeCompact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putMemories(Collection<Memory> memories) {
+        lock.writeLock().lock();
+        try {
+            for (Memory memory : memories) {
+                replace(Kind.MEMORY, memory.getId(), memory.getBook().getId(), memory.getContent());
+            }
+            maybeCompact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Kind kind, Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByKey.remove(key(kind, id));
+            if (slot != null) kill(slot);
+            maybeCompact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Removes those of the given entries that belong to the book, mirroring a scoped bulk delete. */
+    public void removeAll(Kind kind, Long bookId, Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                long key = key(kind, id);
+                Integer slot = slotsByKey.get(key);
+                if (slot != null && bookIds[slot] == bookId) {
+                    slotsByKey.remove(key);
+                    kill(slot);
+                }
+            }
+            maybeCompact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Removes every quote and memory of the books, in one pass over the slots. */
+    public void removeBooks(Collection<Long> bookIds) {
+        Set<Long> books = new HashSet<>(bookIds);
+        lock.writeLock().lock();
+        try {
+            for (int slot = 0; slot < slots; slot++) {
+                if (lengths[slot] >= 0 && books.contains(this.bookIds[slot])) {
+                    slotsByKey.remove(keys[slot]);
+                    kill(slot);
+                }
+            }
+            maybeCompact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best matches for any of the query's terms, highest score first, restricted to
+     * one kind unless {@code kind} is null.
+     */
+    public Result search(String query, Kind kind, int limit) {
+        Set<String> queryTerms = terms(query);
+
+        lock.readLock().lock();
+        try {
+            if (live == 0 || queryTerms.isEmpty()) return new Result(List.of(), 0);
+            double avgLength = (double) totalLength / live;
+            Postings[] lists = new Postings[queryTerms.size()];
+            double[] idfs = new double[lists.length];
+            int k = 0;
+            for (String term : queryTerms) {
+                Postings postings = terms.get(term);
+                if (postings == null || postings.live == 0) continue;
+                lists[k] = postings;
+                idfs[k] = Math.log(1 + (live - postings.live + 0.5) / (postings.live + 0.5));
+                k++;
+            }
+
+            // Postings are in slot order, so merging them visits each candidate once and scores
+            // it whole, with buffers sized to the candidates rather than to the index.
+            int[] cursors = new int[k];
+            int[] matched = new int[16];
+            float[] scores = new float[16];
+            int total = 0;
+            while (true) {
+                int slot = Integer.MAX_VALUE;
+                for (int t = 0; t < k; t++) {
+                    if (cursors[t] < lists[t].size) slot = Math.min(slot, lists[t].slots[cursors[t]]);
+                }
+                if (slot == Integer.MAX_VALUE) break;
+                int length = lengths[slot];
+                boolean wanted = length >= 0 && (kind == null || kindOf(slot) == kind);
+                double norm = K1 * (1 - B + B * length / avgLength);
+                double score = 0;
+                for (int t = 0; t < k; t++) {
+                    int i = cursors[t];
+                    if (i < lists[t].size && lists[t].slots[i] == slot) {
+                        int tf = lists[t].freqs[i];
+                        if (wanted) score += idfs[t] * tf * (K1 + 1) / (tf + norm);
+                        cursors[t]++;
+                    }
+                }
+                if (!wanted) continue;
+                if (total == matched.length) {
+                    matched = Arrays.copyOf(matched, total * 2);
+                    scores = Arrays.copyOf(scores, total * 2);
+                }
+                matched[total] = slot;
+                scores[total] = (float) score;
+                total++;
+            }
+
+            float[] candidateScores = scores;
+            PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, (a, b) ->
+                    candidateScores[a] != candidateScores[b]
+                            ? Float.compare(candidateScores[a], candidateScores[b]) : Integer.compare(a, b));
+            for (int i = 0; i < total; i++) {
+                top.add(i);
+                if (top.size() > limit) top.poll();
+            }
+            Hit[] hits = new Hit[top.size()];
+            for (int i = hits.length - 1; i >= 0; i--) {
+                int candidate = top.poll();
+                int slot = matched[candidate];
+                hits[i] = new Hit(kindOf(slot), keys[slot] >>> 1, bookIds[slot], scores[candidate]);
+            }
+            return new Result(List.of(hits), total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void replace(Kind kind, Long id, Long bookId, String content) {
+        Integer slot = slotsByKey.remove(key(kind, id));
+        if (slot != null) kill(slot);
+        add(kind, id, bookId, content);
+    }
+
+    private void add(Kind kind, Long id, Long bookId, String content) {
+        if (slots == keys.length) {
+            int capacity = slots + (slots >> 1);
+            keys = Arrays.copyOf(keys, capacity);
+            bookIds = Arrays.copyOf(bookIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            slotTerms = Arrays.copyOf(slotTerms, capacity);
+        }
+        int slot = slots++;
+        Map<String, Integer> freqs = new HashMap<>();
+        int[] length = new int[1];
+        tokenize(content, (term, start, end) -> {
+            freqs.merge(term, 1, Integer::sum);
+            length[0]++;
+        });
+        Postings[] postings = new Postings[freqs.size()];
+        int[] next = new int[1];
+        freqs.forEach((term, tf) -> {
+            Postings list = terms.computeIfAbsent(term, t -> new Postings());
+            list.add(slot, tf);
+            postings[next[0]++] = list;
+        });
+        slotTerms[slot] = postings;
+
+        keys[slot] = key(kind, id);
+        bookIds[slot] = bookId;
+        lengths[slot] = length[0];
+        slotsByKey.put(keys[slot], slot);
+        live++;
+        totalLength += length[0];
+    }
+
+    private void kill(int slot) {
+        for (Postings postings : slotTerms[slot]) postings.live--;
+        slotTerms[slot] = null;
+        totalLength -= lengths[slot];
+        lengths[slot] = -1;
+        live--;
+    }
+
+    /** Renumbers the live slots densely and drops dead ones from every postings list. */
+    private void maybeCompact() {
+        int dead = slots - live;
+        if (dead < MIN_DEAD_TO_COMPACT || dead < live) return;
+
+        int[] remap = new int[slots];
+        int next = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (lengths[slot] < 0) {
+                remap[slot] = -1;
+                continue;
+            }
+            remap[slot] = next;
+            keys[next] = keys[slot];
+            bookIds[next] = bookIds[slot];
+            lengths[next] = lengths[slot];
+            slotTerms[next] = slotTerms[slot];
+            slotsByKey.put(keys[next], next);
+            next++;
+        }
+        Arrays.fill(slotTerms, next, slots, null);
+        slots = next;
+
+        Iterator<Postings> it = terms.values().iterator();
+        while (it.hasNext()) {
+            Postings postings = it.next();
+            int kept = 0;
+            for (int i = 0; i < postings.size; i++) {
+                int slot = remap[postings.slots[i]];
+                if (slot < 0) continue;
+                postings.slots[kept] = slot;
+                postings.freqs[kept] = postings.freqs[i];
+                kept++;
+            }
+            postings.size = kept;
+            if (kept == 0) it.remove();
+        }
+    }
+
+    private Kind kindOf(int slot) {
+        return Kind.values()[(int) (keys[slot] & 1)];
+    }
+
+    private static long key(Kind kind, Long id) {
+        return id << 1 | kind.ordinal();
+    }
+
+    /** The distinct terms of the text, in order of first occurrence. */
+    static Set<String> terms(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        tokenize(text, (term, start, end) -> result.add(term));
+        return result;
+    }
+
+    /** Splits the text into lower-cased runs of letters and digits, reporting each with its offsets. */
+    static void tokenize(String text, TokenSink sink) {
+        if (text == null) return;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                sink.accept(text.substring(start, i).toLowerCase(Locale.ROOT), start, i);
+                start = -1;
+            }
+        }
+    }
+
+    interface TokenSink {
+        void accept(String term, int start, int end);
+    }
+
+    private static final class Postings {
+        int[] slots = new int[2];
+        int[] freqs = new int[2];
+        int size;
+        /** Document frequency: how many of the slots are live. */
+        int live;
+
+        void add(int slot, int freq) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            slots[size] = slot;
+            freqs[size] = freq;
+            size++;
+            live++;
+        }
+    }
+
+    public static class Hit {
+        public final Kind kind;
+        public final long id;
+        public final long bookId;
+        public final float score;
+
+        Hit(Kind kind, long id, long bookId, float score) {
+            this.kind   = kind;
+            this.id     = id;
+            this.bookId = bookId;
+            this.score  = score;
+        }
+    }
+
+    public static class Result {
+        public final List<Hit> hits;
+        public final int total;
+
+        Result(List<Hit> hits, int total) {
+            this.hits  = hits;
+            this.total = total;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.booksmgmt.service;
+
+import com.booksmgmt.model.Book;
+import com.booksmgmt.model.Memory;
+import com.booksmgmt.model.Quote;
+import com.booksmgmt.repository.BookRepository;
+import com.booksmgmt.repository.MemoryRepository;
+import com.booksmgmt.repository.QuoteRepository;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Full-text search over quotes and memories. Ranking comes from the {@link ContentSearchIndex};
+ * only the hits on the requested page are loaded, and each is shown as a snippet around its
+ * best matching passage with the matched words marked by offsets.
+ */
+@Service
+public class ContentSearchService {
+
+    private static final int MAX_LIMIT = 100;
+    private static final int SNIPPET_LENGTH = 200;
+    /** How much text to show before the first match of the snippet. */
+    private static final int SNIPPET_LEAD = 40;
+    private static final String ELLIPSIS = "…";
+
+    private final ContentSearchIndex index;
+    private final QuoteRepository quoteRepository;
+    private final MemoryRepository memoryRepository;
+    private final BookRepository bookRepository;
+    private final Timer rankTimer;
+    private final DistributionSummary matches;
+
+    public ContentSearchService(ContentSearchIndex index,
+                                QuoteRepository quoteRepository,
+                                MemoryRepository memoryRepository,
+                                BookRepository bookRepository,
+                                MeterRegistry meterRegistry) {
+        this.index = index;
+        this.quoteRepository = quoteRepository;
+        this.memoryRepository = memoryRepository;
+        this.bookRepository = bookRepository;
+        this.rankTimer = Timer.builder("content.search.rank")
+                .description("Time to score and rank quotes and memories in the index")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.matches = DistributionSummary.builder("content.search.matches")
+                .description("Quotes and memories scored per search")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /** Searches quotes and memories, or only one of them when {@code type} is "quote" or "memory". */
+    public SearchResults search(String query, String type, int limit) {
+        ContentSearchIndex.Kind kind = kind(type);
+        ContentSearchIndex.Result result = rankTimer.record(
+                () -> index.search(query, kind, Math.max(1, Math.min(limit, MAX_LIMIT))));
+        matches.record(result.total);
+
+        List<Long> quoteIds = new ArrayList<>();
+        List<Long> memoryIds = new ArrayList<>();
+        Set<Long> bookIds = new HashSet<>();
+        for (ContentSearchIndex.Hit hit : result.hits) {
+            (hit.kind == ContentSearchIndex.Kind.QUOTE ? quoteIds : memoryIds).add(hit.id);
+            bookIds.add(hit.bookId);
+        }
+        Map<Long, Quote> quotes = byId(quoteRepository.findAllById(quoteIds), Quote::getId);
+        Map<Long, Memory> memories = byId(memoryRepository.findAllById(memoryIds), Memory::getId);
+        Map<Long, Book> books = byId(bookRepository.findAllById(bookIds), Book::getId);
+
+        Set<String> terms = ContentSearchIndex.terms(query);
+        List<SearchHit> hits = new ArrayList<>();
+        for (ContentSearchIndex.Hit hit : result.hits) {
+            String content;
+            Integer pageNumber = null;
+            if (hit.kind == ContentSearchIndex.Kind.QUOTE) {
+                Quote quote = quotes.get(hit.id);
+                // Deleted since the index was searched.
+                if (quote == null) continue;
+                content = quote.getContent();
+                pageNumber = quote.getPageNumber();
+            } else {
+                Memory memory = memories.get(hit.id);
+                if (memory == null) continue;
+                content = memory.getContent();
+            }
+            Book book = books.get(hit.bookId);
+            Snippet snippet = snippet(content, terms);
+            hits.add(new SearchHit(hit.kind.name().toLowerCase(Locale.ROOT), hit.id, hit.bookId,
+                    book != null ? book.getTitle() : null, pageNumber, hit.score, snippet.text, snippet.highlights));
+        }
+        return new SearchResults(result.total, hits);
+    }
+
+    private static ContentSearchIndex.Kind kind(String type) {
+        if (type == null || type.isEmpty()) return null;
+        try {
+            return ContentSearchIndex.Kind.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Type must be quote or memory.");
+        }
+    }
+
+    /**
+     * Cuts long content down to a window that starts shortly before the match followed by the
+     * most distinct query terms, and returns the offsets of the matches inside it.
+     */
+    static Snippet snippet(String content, Set<String> terms) {
+        List<int[]> matches = new ArrayList<>();
+        List<String> matchTerms = new ArrayList<>();
+        ContentSearchIndex.tokenize(content, (term, start, end) -> {
+            if (terms.contains(term)) {
+                matches.add(new int[]{start, end});
+                matchTerms.add(term);
+            }
+        });
+
+        int from = 0;
+        int to = content.length();
+        if (to > SNIPPET_LENGTH) {
+            int best = 0;
+            int bestCount = 0;
+            for (int i = 0; i < matches.size(); i++) {
+                int windowEnd = Math.max(0, matches.get(i)[0] - SNIPPET_LEAD) + SNIPPET_LENGTH;
+                Set<String> covered = new HashSet<>();
+                for (int j = i; j < matches.size() && matches.get(j)[1] <= windowEnd; j++) {
+                    covered.add(matchTerms.get(j));
+                }
+                if (covered.size() > bestCount) {
+                    best = i;
+                    bestCount = covered.size();
+                }
+            }
+            int anchor = matches.isEmpty() ? 0 : matches.get(best)[0];
+            from = Math.max(0, Math.min(anchor - SNIPPET_LEAD, content.length() - SNIPPET_LENGTH));
+            to = from + SNIPPET_LENGTH;
+            // Start and end on word boundaries.
+            if (from > 0) {
+                int space = content.indexOf(' ', from);
+                if (space >= 0 && space < anchor) from = space + 1;
+            }
+            if (to < content.length()) {
+                int space = content.lastIndexOf(' ', to);
+                if (space > from && space > anchor) to = space;
+            }
+        }
+
+        String prefix = from > 0 ? ELLIPSIS : "";
+        String text = prefix + content.substring(from, to) + (to < content.length() ? ELLIPSIS : "");
+        List<int[]> highlights = new ArrayList<>();
+        for (int[] match : matches) {
+            if (match[0] >= from && match[1] <= to) {
+                highlights.add(new int[]{match[0] - from + prefix.length(), match[1] - from + prefix.length()});
+            }
+        }
+        return new Snippet(text, highlights);
+    }
+
+    private static <T> Map<Long, T> byId(List<T> items, Function<T, Long> id) {
+        Map<Long, T> result = new HashMap<>();
+        for (T item : items) result.put(id.apply(item), item);
+        return result;
+    }
+
+    static final class Snippet {
+        final String text;
+        final List<int[]> highlights;
+
+        Snippet(String text, List<int[]> highlights) {
+            this.text = text;
+            this.highlights = highlights;
+        }
+    }
+
+    public static class SearchResults {
+        public final int total;
+        public final List<SearchHit> hits;
+
+        public SearchResults(int total, List<SearchHit> hits) {
+            this.total = total;
+            this.hits  = hits;
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class SearchHit {
+        public final String type;
+        public final long id;
+        public final long bookId;
+        public final String bookTitle;
+        public final Integer pageNumber;
+        public final float score;
+        public final String snippet;
+        /** Start and end offsets of the matched words in {@link #snippet}. */
+        public final List<int[]> highlights;
+
+        public SearchHit(String type, long id, long bookId, String bookTitle, Integer pageNumber,
+                         float score, String snippet, List<int[]> highlights) {
+            this.type       = type;
+            this.id         = id;
+            this.bookId     = bookId;
+            this.bookTitle  = bookTitle;
+            this.pageNumber = pageNumber;
+            this.score      = score;
+            this.snippet    = snippet;
+            this.highlights = highlights;
+        }
+    }
+}
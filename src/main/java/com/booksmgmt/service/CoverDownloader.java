@@ -0,0 +1,308 @@
+package com.booksmgmt.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Fetches cover images from the allowed providers into the {@link CoverStore}. All downloads
+ * share one {@link HttpClient} and a per-host concurrency limit, so a large import neither
+ * blocks the request nor floods a provider.
+ * <p>
+ * With {@code app.covers.async-io} on, downloads are sent with {@link HttpClient#sendAsync} and
+ * written to disk through {@link CoverStore.Writer}, so no thread waits on the network or the
+ * disk; downloads over the per-host limit queue instead of holding a thread. Otherwise each
+ * download occupies a thread of the pool from start to finish. Either way the pool runs the
+ * batch callbacks, which write to the database.
+ */
+@Component
+public class CoverDownloader {
+
+    private static final int MAX_TRACKED_BATCHES = 100;
+
+    private final List<String> allowedPrefixes;
+    private final CoverStore coverStore;
+    private final Duration requestTimeout;
+    private final int perHostLimit;
+    private final boolean asyncIo;
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary downloadedBytes;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final Map<String, HostQueue> hostQueues = new ConcurrentHashMap<>();
+    private final Map<String, Batch> batches = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Batch> eldest) {
+                    return size() > MAX_TRACKED_BATCHES;
+                }
+            });
+
+    public CoverDownloader(CoverStore coverStore,
+                           @Value("${app.covers.allowed-prefixes:https://books.google.com/,https://covers.openlibrary.org/}")
+                           List<String> allowedPrefixes,
+                           @Value("${app.covers.download-threads:8}") int threads,
+                           @Value("${app.covers.per-host-limit:4}") int perHostLimit,
+                           @Value("${app.covers.connect-timeout:5s}") Duration connectTimeout,
+                           @Value("${app.covers.request-timeout:20s}") Duration requestTimeout,
+                           @Value("${app.covers.async-io:true}") boolean asyncIo,
+                           MeterRegistry meterRegistry) {
+        this.allowedPrefixes = allowedPrefixes;
+        this.coverStore = coverStore;
+        this.requestTimeout = requestTimeout;
+        this.perHostLimit = perHostLimit;
+        this.asyncIo = asyncIo;
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "cover-download-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.meterRegistry = meterRegistry;
+        this.downloadedBytes = DistributionSummary.builder("covers.download.size")
+                .description("Size of downloaded cover images")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Downloads the image, waiting for it to be stored, and returns its public path, or null if
+     * the URL is not an allowed cover provider or the download fails. Deliberately synchronous
+     * in both I/O modes: a single book's save needs the stored path before it can be written.
+     * Batches go through {@link #start}, which never blocks on a download.
+     */
+    public String download(String imageUrl) {
+        if (!isAllowed(imageUrl)) return null;
+        return asyncIo ? fetchAsync(imageUrl).join() : fetchBlocking(imageUrl);
+    }
+
+    private boolean isAllowed(String imageUrl) {
+        if (imageUrl != null && allowedPrefixes.stream().anyMatch(imageUrl::startsWith)) return true;
+        record(Timer.start(), "rejected");
+        return false;
+    }
+
+    private String fetchBlocking(String imageUrl) {
+        Timer.Sample sample = Timer.start();
+        String outcome = "error";
+        try {
+            URI uri = URI.create(imageUrl);
+            Semaphore permits = hostPermits.computeIfAbsent(uri.getHost(), h -> new Semaphore(perHostLimit));
+            permits.acquire();
+            try {
+                String path = fetch(uri);
+                outcome = path != null ? "success" : "failure";
+                return path;
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return null;
+        } finally {
+            record(sample, outcome);
+        }
+    }
+
+    /** Records the download's duration, including any wait for a per-host permit. */
+    private void record(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("covers.download")
+                .description("Cover image downloads by outcome")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private String fetch(URI uri) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder().uri(uri).timeout(requestTimeout).build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) return null;
+            String path = coverStore.store(body, extension(response.headers()));
+            recordSize(path);
+            return path;
+        }
+    }
+
+    /** Completes with the stored path, or null if the download fails; never exceptionally. */
+    private CompletableFuture<String> fetchAsync(String imageUrl) {
+        Timer.Sample sample = Timer.start();
+        CompletableFuture<String> download;
+        try {
+            URI uri = URI.create(imageUrl);
+            HttpRequest request = HttpRequest.newBuilder().uri(uri).timeout(requestTimeout).build();
+            download = hostQueues.computeIfAbsent(uri.getHost(), h -> new HostQueue())
+                    .submit(() -> client.sendAsync(request, info -> info.statusCode() == 200
+                                    ? coverStore.writer(extension(info.headers()))
+                                    : HttpResponse.BodySubscribers.replacing(null))
+                            .thenApply(HttpResponse::body));
+        } catch (RuntimeException e) {
+            download = CompletableFuture.failedFuture(e);
+        }
+        return download.handle((path, error) -> {
+            if (error != null) {
+                record(sample, "error");
+                return null;
+            }
+            record(sample, path != null ? "success" : "failure");
+            if (path != null) recordSize(path);
+            return path;
+        });
+    }
+
+    private static String extension(HttpHeaders headers) {
+        String contentType = headers.firstValue("content-type").orElse("");
+        return contentType.contains("png") ? ".png" : ".jpg";
+    }
+
+    private void recordSize(String path) {
+        try {
+            downloadedBytes.record(Files.size(coverStore.file(path)));
+        } catch (IOException ignored) {
+            // Deleted again already; the download itself succeeded.
+        }
+    }
+
+    /** Registers a batch of downloads, keyed by book id, to be started with {@link #start}. */
+    public Batch newBatch(Map<Long, String> urlsByBookId) {
+        Batch batch = new Batch(UUID.randomUUID().toString(), Map.copyOf(urlsByBookId));
+        batches.put(batch.id, batch);
+        return batch;
+    }
+
+    /** Starts the batch's downloads in the background, handing each saved path to the callback. */
+    public void start(Batch batch, BiConsumer<Long, String> onDownloaded) {
+        batch.urlsByBookId.forEach((bookId, url) -> {
+            if (!isAllowed(url)) {
+                batch.failed.incrementAndGet();
+            } else if (asyncIo) {
+                fetchAsync(url).thenAcceptAsync(path -> finish(batch, bookId, path, onDownloaded), executor);
+            } else {
+                executor.execute(() -> finish(batch, bookId, fetchBlocking(url), onDownloaded));
+            }
+        });
+    }
+
+    private static void finish(Batch batch, Long bookId, String path, BiConsumer<Long, String> onDownloaded) {
+        if (path != null) {
+            try {
+                onDownloaded.accept(bookId, path);
+                batch.completed.incrementAndGet();
+                return;
+            } catch (RuntimeException ignored) {
+            }
+        }
+        batch.failed.incrementAndGet();
+    }
+
+    public Optional<Batch> findBatch(String id) {
+        return Optional.ofNullable(batches.get(id));
+    }
+
+    /**
+     * Downloads from one host, at most {@code perHostLimit} at a time. Downloads over the limit
+     * wait in a queue and are sent as running ones finish, so waiting holds no thread.
+     */
+    private final class HostQueue {
+        private final Deque<Runnable> waiting = new ArrayDeque<>();
+        private int active;
+
+        CompletableFuture<String> submit(Supplier<CompletableFuture<String>> download) {
+            CompletableFuture<String> result = new CompletableFuture<>();
+            Runnable run = () -> {
+                CompletableFuture<String> started;
+                try {
+                    started = download.get();
+                } catch (RuntimeException e) {
+                    started = CompletableFuture.failedFuture(e);
+                }
+                // Async so a download that completes at once cannot start the next one on this
+                // stack, recursing once per queued download.
+                started.whenCompleteAsync((path, error) -> {
+                    next();
+                    if (error != null) result.completeExceptionally(error); else result.complete(path);
+                }, executor);
+            };
+            synchronized (this) {
+                if (active >= perHostLimit) {
+                    waiting.add(run);
+                    return result;
+                }
+                active++;
+            }
+            run.run();
+            return result;
+        }
+
+        private void next() {
+            Runnable next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            }
+            next.run();
+        }
+    }
+
+    public static class Batch {
+        public final String id;
+        public final int total;
+        private final Map<Long, String> urlsByBookId;
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        Batch(String id, Map<Long, String> urlsByBookId) {
+            this.id = id;
+            this.total = urlsByBookId.size();
+            this.urlsByBookId = urlsByBookId;
+        }
+
+        public int getCompleted() { return completed.get(); }
+        public int getFailed() { return failed.get(); }
+        public boolean isDone() { return completed.get() + failed.get() >= total; }
+    }
+}
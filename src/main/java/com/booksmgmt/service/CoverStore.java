@@ -0,0 +1,424 @@
+package com.booksmgmt.service;
+
+import com.booksmgmt.repository.BookRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cover files in the upload directory, named by the SHA-256 of their content so identical
+ * images are stored once however many books use them. A file is shared by every book whose
+ * {@code coverImagePath} points at it and is only deleted once no book does.
+ */
+@Component
+public class CoverStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CoverStore.class);
+
+    private static final String PUBLIC_PREFIX = "/uploads/covers/";
+    private static final String TEMP_PREFIX = ".upload-";
+    private static final Pattern HASHED_NAME = Pattern.compile("[0-9a-f]{64}(\\.[a-z]+)?");
+    private static final Pattern VARIANT_NAME = Pattern.compile("(.+)-(grid|detail)\\.jpg");
+    /** Covers saved before content addressing: a random UUID plus the uploaded file's extension. */
+    private static final Pattern LEGACY_NAME = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}(\\.[A-Za-z0-9]+)?");
+
+    /**
+     * How long a newly stored or reused file is protected from deletion. A cover is written
+     * before the book that uses it is saved, so an unreferenced file may be about to be used.
+     */
+    private static final Duration GRACE = Duration.ofMinutes(1);
+
+    private final BookRepository bookRepository;
+    private final Path uploadDir;
+    private final ExecutorService cleaner = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "cover-cleaner");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public CoverStore(BookRepository bookRepository,
+                      @Value("${app.upload.dir:./uploads/covers}") String uploadPath) {
+        this.bookRepository = bookRepository;
+        this.uploadDir = Paths.get(uploadPath).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.uploadDir);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not create upload directory", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdown();
+    }
+
+    /**
+     * Copies the image into the store, hashing it on the way, and returns its public path. If
+     * the same bytes are already stored the existing file is kept and the copy discarded.
+     */
+    public String store(InputStream content, String extension) throws IOException {
+        Path temp = tempFile();
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(content, digest)) {
+                Files.copy(in, temp);
+            }
+            return keep(temp, digest, extension);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Returns a writer that stores an image arriving in chunks, such as an HTTP response body,
+     * the way {@link #store} does, without blocking the threads that deliver the chunks.
+     */
+    public Writer writer(String extension) {
+        return new Writer(extension);
+    }
+
+    /** Moves the hashed temp file to its content address, or reuses an identical file there. */
+    private String keep(Path temp, MessageDigest digest, String extension) throws IOException {
+        String filename = HexFormat.of().formatHex(digest.digest()) + extension;
+        Path target = uploadDir.resolve(filename);
+        if (Files.exists(target)) {
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+        } else {
+            move(temp, target);
+        }
+        return PUBLIC_PREFIX + filename;
+    }
+
+    /** A fresh path in the upload directory for writing a file before moving it into place. */
+    Path tempFile() {
+        return uploadDir.resolve(TEMP_PREFIX + UUID.randomUUID() + ".tmp");
+    }
+
+    /** Resolves a public cover path to its file, or null if it does not point into the store. */
+    public Path file(String path) {
+        if (path == null) return null;
+        String filename = path.substring(path.lastIndexOf('/') + 1);
+        Path file = uploadDir.resolve(filename).normalize();
+        return file.startsWith(uploadDir) && !file.equals(uploadDir) ? file : null;
+    }
+
+    /**
+     * Deletes the cover and its variants unless a book still uses it. Call once the change
+     * that dropped the reference has been committed.
+     */
+    public void release(String path) {
+        Path file = file(path);
+        if (file == null || bookRepository.countByCoverImagePath(path) > 0) return;
+        try {
+            if (Files.exists(file) && isRecent(file)) return;
+            Files.deleteIfExists(file);
+            for (String variant : CoverThumbnails.variantPaths(path)) {
+                Path variantFile = file(variant);
+                if (variantFile != null) Files.deleteIfExists(variantFile);
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    /** Releases the covers on a background thread, for callers that should not wait on the disk. */
+    public void releaseLater(Collection<String> paths) {
+        if (paths.isEmpty()) return;
+        List<String> distinct = paths.stream().distinct().toList();
+        cleaner.execute(() -> distinct.forEach(this::release));
+    }
+
+    /**
+     * Stores every cover that is not yet under its hash at its content-addressed name, unless
+     * that content is already stored, repoints the books that used it, and only then deletes
+     * the old file and its variants so they are made again. Then deletes files no book references.
+     * Safe to run repeatedly; only legacy files are hashed.
+     */
+    public CompactionReport compact() throws IOException {
+        CompactionReport report = new CompactionReport();
+        for (Path file : list()) {
+            String name = file.getFileName().toString();
+            if (name.startsWith(TEMP_PREFIX) || HASHED_NAME.matcher(name).matches()
+                    || VARIANT_NAME.matcher(name).matches()) {
+                continue;
+            }
+            String oldPath = PUBLIC_PREFIX + name;
+            // Unused legacy files are left to the sweep below.
+            if (bookRepository.countByCoverImagePath(oldPath) == 0) continue;
+
+            String filename = hash(file) + extensionOf(name);
+            Path target = uploadDir.resolve(filename);
+            boolean duplicate = Files.exists(target);
+            if (!duplicate) {
+                // Copied rather than moved: the legacy file keeps serving the books until they are repointed.
+                Path temp = tempFile();
+                try {
+                    Files.copy(file, temp);
+                    move(temp, target);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+            report.booksRepointed += bookRepository.replaceCoverImagePath(oldPath, PUBLIC_PREFIX + filename, Instant.now());
+
+            long size = Files.size(file);
+            Files.delete(file);
+            if (duplicate) {
+                report.bytesFreed += size;
+                report.duplicatesRemoved++;
+            } else {
+                report.rehashed++;
+            }
+            for (String variant : CoverThumbnails.variantPaths(oldPath)) {
+                Path variantFile = file(variant);
+                if (variantFile != null) Files.deleteIfExists(variantFile);
+            }
+        }
+
+        Set<String> referenced = new HashSet<>();
+        for (String cover : bookRepository.findAllCoverImagePaths()) {
+            referenced.add(cover.substring(cover.lastIndexOf('/') + 1));
+            for (String variant : CoverThumbnails.variantPaths(cover)) {
+                referenced.add(variant.substring(variant.lastIndexOf('/') + 1));
+            }
+        }
+        for (Path file : list()) {
+            String name = file.getFileName().toString();
+            // Only files the store made are swept; anything else in the directory is left alone.
+            if (!isCoverName(name) || referenced.contains(name) || isRecent(file)) continue;
+            long size = Files.size(file);
+            if (Files.deleteIfExists(file)) {
+                report.unreferencedRemoved++;
+                report.bytesFreed += size;
+            }
+        }
+        log.info("Compacted covers: {} rehashed, {} duplicates removed, {} books repointed, "
+                        + "{} unreferenced removed, {} bytes freed", report.rehashed, report.duplicatesRemoved,
+                report.booksRepointed, report.unreferencedRemoved, report.bytesFreed);
+        return report;
+    }
+
+    private List<Path> list() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(uploadDir, Files::isRegularFile)) {
+            dir.forEach(files::add);
+        }
+        return files;
+    }
+
+    /** Whether the store could have written a file of this name: a cover, hashed or legacy, or a variant of one. */
+    private static boolean isCoverName(String name) {
+        Matcher variant = VARIANT_NAME.matcher(name);
+        String cover = variant.matches() ? variant.group(1) : name;
+        return HASHED_NAME.matcher(cover).matches() || LEGACY_NAME.matcher(cover).matches();
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static boolean isRecent(Path file) {
+        try {
+            Instant modified = Files.getLastModifiedTime(file).toInstant();
+            return modified.isAfter(Instant.now().minus(GRACE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String extensionOf(String filename) {
+        int dot = filename.lastIndexOf('.');
+        String extension = dot >= 0 ? filename.substring(dot).toLowerCase(Locale.ROOT) : "";
+        return extension.equals(".jpeg") ? ".jpg" : extension;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class CompactionReport {
+        public int rehashed;
+        public int duplicatesRemoved;
+        public int booksRepointed;
+        public int unreferencedRemoved;
+        public long bytesFreed;
+    }
+
+    /**
+     * Hashes the chunks and writes them to a temp file through an {@link AsynchronousFileChannel},
+     * asking for the next chunk only once the previous one is on disk. Usable directly as an
+     * {@link java.net.http.HttpClient} body subscriber; the body is the stored image's path.
+     */
+    public final class Writer implements HttpResponse.BodySubscriber<String> {
+
+        private final String extension;
+        private final Path temp = tempFile();
+        private final MessageDigest digest = sha256();
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+        private AsynchronousFileChannel channel;
+        private long position;
+        /** Guarded by this: the publisher may complete while the last chunk is still being written. */
+        private boolean writing;
+        private boolean complete;
+
+        private Writer(String extension) {
+            this.extension = extension;
+        }
+
+        @Override
+        public CompletionStage<String> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            try {
+                channel = AsynchronousFileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                subscription.cancel();
+                fail(e);
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            synchronized (this) {
+                writing = true;
+            }
+            write(buffers.iterator());
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            fail(error);
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                complete = true;
+                if (writing) return;
+            }
+            finish();
+        }
+
+        private void write(Iterator<ByteBuffer> buffers) {
+            if (!buffers.hasNext()) {
+                boolean finishNow;
+                synchronized (this) {
+                    writing = false;
+                    finishNow = complete;
+                }
+                if (finishNow) finish(); else subscription.request(1);
+                return;
+            }
+            ByteBuffer buffer = buffers.next();
+            digest.update(buffer.duplicate());
+            write(buffer, buffers);
+        }
+
+        private void write(ByteBuffer buffer, Iterator<ByteBuffer> rest) {
+            channel.write(buffer, position, null, new CompletionHandler<Integer, Void>() {
+                @Override
+                public void completed(Integer written, Void attachment) {
+                    position += written;
+                    if (buffer.hasRemaining()) write(buffer, rest); else write(rest);
+                }
+
+                @Override
+                public void failed(Throwable error, Void attachment) {
+                    subscription.cancel();
+                    fail(error);
+                }
+            });
+        }
+
+        private void finish() {
+            try {
+                channel.close();
+                result.complete(keep(temp, digest, extension));
+            } catch (IOException e) {
+                result.completeExceptionally(e);
+            } finally {
+                deleteTemp();
+            }
+        }
+
+        private void fail(Throwable error) {
+            try {
+                if (channel != null) channel.close();
+            } catch (IOException ignored) {
+            }
+            deleteTemp();
+            result.completeExceptionally(error);
+        }
+
+        private void deleteTemp() {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                log.warn("Could not delete {}: {}", temp, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.booksmgmt.service;
+
+import com.booksmgmt.model.Book;
+import com.booksmgmt.repository.BookRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Produces the resized cover variants shown in the grid and on the detail page, so neither
+ * has to load the full-size upload. Variants are written as JPEG next to the original and
+ * named after it, so books sharing a cover share its variants too; a cover already smaller
+ * than a variant is used as that variant directly. Work runs on a small background pool and
+ * the paths are stored on the book when done.
+ */
+@Component
+public class CoverThumbnails {
+
+    private static final Logger log = LoggerFactory.getLogger(CoverThumbnails.class);
+
+    /** Bounding boxes at twice the CSS size, for high-density screens. */
+    private enum Variant {
+        GRID("grid", 320, 280),
+        DETAIL("detail", 400, 560);
+
+        final String suffix;
+        final int maxWidth;
+        final int maxHeight;
+
+        Variant(String suffix, int maxWidth, int maxHeight) {
+            this.suffix = suffix;
+            this.maxWidth = maxWidth;
+            this.maxHeight = maxHeight;
+        }
+    }
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final BookRepository bookRepository;
+    private final CoverStore coverStore;
+    private final LibraryVersion libraryVersion;
+    private final ChangeFeed changeFeed;
+    private final TransactionTemplate writes;
+    private final ExecutorService executor;
+
+    public CoverThumbnails(BookRepository bookRepository,
+                           CoverStore coverStore,
+                           LibraryVersion libraryVersion,
+                           ChangeFeed changeFeed,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.covers.thumbnail-threads:2}") int threads) {
+        this.bookRepository = bookRepository;
+        this.coverStore = coverStore;
+        this.libraryVersion = libraryVersion;
+        this.changeFeed = changeFeed;
+        this.writes = new TransactionTemplate(transactionManager);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "cover-thumbnail-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Queues variants for every book whose cover predates them or whose last attempt was lost. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        List<Book> books = bookRepository.findBooksMissingCoverVariants();
+        if (books.isEmpty()) return;
+        log.info("Generating cover variants for {} books", books.size());
+        books.forEach(book -> generate(book.getId(), book.getCoverImagePath()));
+    }
+
+    /** Generates the variants of the book's cover in the background and stores their paths. */
+    public void generate(Long bookId, String coverPath) {
+        if (coverPath == null) return;
+        executor.execute(() -> {
+            try {
+                String[] paths = resize(coverPath);
+                if (paths == null) return;
+                if (!Boolean.TRUE.equals(writes.execute(status -> storeVariants(bookId, coverPath, paths)))) {
+                    // The cover was replaced or the book deleted while resizing.
+                    coverStore.release(coverPath);
+                } else {
+                    libraryVersion.bump();
+                    changeFeed.publish(ChangeFeed.Entity.BOOK, ChangeFeed.Type.UPDATED, bookId, bookId,
+                            Map.of("coverThumbPath", paths[0], "coverDetailPath", paths[1]));
+                }
+            } catch (Exception e) {
+                log.warn("Could not generate cover variants for {}: {}", coverPath, e.getMessage());
+            }
+        });
+    }
+
+    /** Stores the variants' paths, unless the cover they were made from has been replaced since. */
+    private boolean storeVariants(Long bookId, String coverPath, String[] paths) {
+        return bookRepository.findByIdForUpdate(bookId)
+                .filter(book -> coverPath.equals(book.getCoverImagePath()))
+                .map(book -> {
+                    book.setCoverThumbPath(paths[0]);
+                    book.setCoverDetailPath(paths[1]);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /** Paths of the variant files that may have been made from the given cover. */
+    public static List<String> variantPaths(String coverPath) {
+        return Arrays.stream(Variant.values()).map(v -> variantPath(coverPath, v)).toList();
+    }
+
+    /** Returns the grid and detail paths, or null if the cover is missing or not a readable image. */
+    private String[] resize(String coverPath) throws IOException {
+        Path source = coverStore.file(coverPath);
+        if (source == null || !Files.isRegularFile(source)) return null;
+
+        BufferedImage image = read(source, Variant.DETAIL);
+        if (image == null) return null;
+
+        String[] paths = new String[Variant.values().length];
+        for (Variant variant : Variant.values()) {
+            double scale = Math.min((double) variant.maxWidth / image.getWidth(),
+                    (double) variant.maxHeight / image.getHeight());
+            if (scale >= 1) {
+                paths[variant.ordinal()] = coverPath;
+                continue;
+            }
+            String path = variantPath(coverPath, variant);
+            Path target = coverStore.file(path);
+            if (!Files.exists(target)) {
+                int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+                int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+                // Books sharing the cover may resize it concurrently; each writes aside and moves in.
+                Path temp = coverStore.tempFile();
+                try {
+                    writeJpeg(scale(image, width, height), temp);
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+            paths[variant.ordinal()] = path;
+        }
+        return paths;
+    }
+
+    /**
+     * Decodes the image, skipping pixels while reading when it is far larger than the biggest
+     * variant. Subsampling stops at twice the target size so the final scaling still has
+     * enough detail to filter.
+     */
+    private static BufferedImage read(Path file, Variant largest) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int step = Math.min(reader.getWidth(0) / (2 * largest.maxWidth),
+                        reader.getHeight(0) / (2 * largest.maxHeight));
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (step > 1) param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Scales down in halving steps, which keeps bilinear filtering from dropping detail. */
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        BufferedImage current = image;
+        int w = image.getWidth();
+        int h = image.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                // JPEG has no alpha channel; transparent PNG areas become white.
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, w, h);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static String variantPath(String coverPath, Variant variant) {
+        int dot = coverPath.lastIndexOf('.');
+        String base = dot > coverPath.lastIndexOf('/') ? coverPath.substring(0, dot) : coverPath;
+        return base + "-" + variant.suffix + ".jpg";
+    }
+}
@@ -0,0 +1,28 @@
+package com.booksmgmt.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/** Writes RFC 4180 records, quoting fields that contain commas, quotes or line breaks. */
+final class CsvWriter {
+
+    private CsvWriter() {}
+
+    static void writeRecord(Writer out, List<?> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) out.write(',');
+            Object field = fields.get(i);
+            if (field == null) continue;
+            String value = field.toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+        out.write("\r\n");
+    }
+}
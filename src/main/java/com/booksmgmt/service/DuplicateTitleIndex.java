@@ -0,0 +1,291 @@
+package com.booksmgmt.service;
+
+import com.booksmgmt.model.Book;
+import com.booksmgmt.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory index of normalized book titles for duplicate detection. Titles are compared after
+ * {@link #normalize}, so case, accents, punctuation and a leading or trailing article do not
+ * tell two titles apart. Near duplicates are found through the titles' trigrams: one edit
+ * changes at most three of them, so a title within k edits of another shares all but 3k of its
+ * distinct trigrams, and only titles that pass that count are compared by edit distance.
+ */
+@Component
+public class DuplicateTitleIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern TRAILING_ARTICLE = Pattern.compile("^(.+?)\\s*,\\s*(the|a|an)$");
+    private static final Pattern LEADING_ARTICLE = Pattern.compile("^(the|a|an)\\s+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final BookRepository bookRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> titles = new HashMap<>();
+    private final Map<String, Node> nodes = new HashMap<>();
+    private final Map<String, IntList> grams = new HashMap<>();
+    /** Nodes by slot, with freed slots reused, so per-query counters can be a plain array. */
+    private final List<Node> slots = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    public DuplicateTitleIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        List<Object[]> rows = bookRepository.findAllIdsAndTitles();
+        lock.writeLock().lock();
+        try {
+            titles.clear();
+            nodes.clear();
+            grams.clear();
+            slots.clear();
+            freeSlots.clear();
+            for (Object[] row : rows) add((Long) row[0], (String) row[1]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Book book) {
+        putAll(List.of(book));
+    }
+
+    public void putAll(Collection<Book> books) {
+        lock.writeLock().lock();
+        try {
+            for (Book book : books) {
+                removeEntry(book.getId());
+                add(book.getId(), book.getTitle());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Whether some book other than {@code excludeId} has the same normalized title. */
+    public boolean containsTitle(String title, Long excludeId) {
+        String key = normalize(title);
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(key);
+            if (node == null) return false;
+            return excludeId == null ? !node.ids.isEmpty() : node.ids.stream().anyMatch(id -> !id.equals(excludeId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The normalized titles of all books. */
+    public Set<String> normalizedTitles() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(nodes.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Books whose normalized title is within {@link #maxDistance} edits of the given one,
+     * closest first. Distance 0 means the titles only differ in what normalization ignores.
+     */
+    public List<Candidate> candidates(String title, Long excludeId) {
+        String key = normalize(title);
+        int max = maxDistance(key);
+        Set<String> queryGrams = grams(key);
+        int required = queryGrams.size() - 3 * max;
+        List<Candidate> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            if (max == 0 || required <= 0) {
+                Node node = nodes.get(key);
+                if (node != null) addCandidates(result, node, 0, excludeId);
+            } else {
+                int[] shared = new int[slots.size()];
+                List<Node> passed = new ArrayList<>();
+                for (String gram : queryGrams) {
+                    IntList postings = grams.get(gram);
+                    if (postings == null) continue;
+                    for (int i = 0; i < postings.size; i++) {
+                        int slot = postings.values[i];
+                        if (++shared[slot] == required) passed.add(slots.get(slot));
+                    }
+                }
+                for (Node node : passed) {
+                    if (Math.abs(node.key.length() - key.length()) > max) continue;
+                    // The bound holds from the other title's side too.
+                    if (shared[node.slot] < node.gramCount - 3 * max) continue;
+                    int distance = distance(key, node.key);
+                    if (distance <= max) addCandidates(result, node, distance, excludeId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparingInt((Candidate c) -> c.distance).thenComparing(c -> c.id));
+        return result;
+    }
+
+    private void addCandidates(List<Candidate> result, Node node, int distance, Long excludeId) {
+        for (Long id : node.ids) {
+            if (!id.equals(excludeId)) result.add(new Candidate(id, titles.get(id), distance));
+        }
+    }
+
+    /**
+     * Lower-cases the title, strips accents and a leading or trailing article ("Hobbit, The"),
+     * and reduces punctuation and spacing to single spaces.
+     */
+    public static String normalize(String title) {
+        if (title == null) return "";
+        String s = MARKS.matcher(Normalizer.normalize(title, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT).replace("&", " and ").trim();
+        s = TRAILING_ARTICLE.matcher(s).replaceFirst("$1");
+        s = NON_WORD.matcher(s).replaceAll(" ").trim();
+        String stripped = LEADING_ARTICLE.matcher(s).replaceFirst("");
+        // A title that is nothing but an article keeps it.
+        return stripped.isEmpty() ? s : stripped;
+    }
+
+    /** Short titles must match exactly; longer ones tolerate one typo, or two from nine characters on. */
+    private static int maxDistance(String key) {
+        if (key.length() < 4) return 0;
+        return key.length() < 9 ? 1 : 2;
+    }
+
+    private void add(Long id, String title) {
+        if (title == null) return;
+        String key = normalize(title);
+        titles.put(id, title);
+        Node node = nodes.get(key);
+        if (node == null) {
+            Set<String> keyGrams = grams(key);
+            int slot = freeSlots.isEmpty() ? slots.size() : freeSlots.pop();
+            node = new Node(key, slot, keyGrams.size());
+            if (slot == slots.size()) slots.add(node); else slots.set(slot, node);
+            nodes.put(key, node);
+            for (String gram : keyGrams) grams.computeIfAbsent(gram, g -> new IntList()).add(slot);
+        }
+        node.ids.add(id);
+    }
+
+    private void removeEntry(Long id) {
+        String title = titles.remove(id);
+        if (title == null) return;
+        String key = normalize(title);
+        Node node = nodes.get(key);
+        if (node == null || !node.ids.remove(id) || !node.ids.isEmpty()) return;
+
+        nodes.remove(key);
+        for (String gram : grams(key)) {
+            IntList postings = grams.get(gram);
+            postings.remove(node.slot);
+            if (postings.size == 0) grams.remove(gram);
+        }
+        slots.set(node.slot, null);
+        freeSlots.push(node.slot);
+    }
+
+    /** Distinct trigrams of the key, padded so that its first and last characters count too. */
+    private static Set<String> grams(String key) {
+        String padded = "  " + key + "  ";
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) result.add(padded.substring(i, i + 3));
+        return result;
+    }
+
+    /** Levenshtein distance with two rolling rows. */
+    static int distance(String a, String b) {
+        if (a.equals(b)) return 0;
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Node {
+        final String key;
+        final int slot;
+        final int gramCount;
+        final Set<Long> ids = new HashSet<>(2);
+
+        Node(String key, int slot, int gramCount) {
+            this.key = key;
+            this.slot = slot;
+            this.gramCount = gramCount;
+        }
+    }
+
+    /** Growable list of slots; removal moves the last slot into the gap. */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    public static class Candidate {
+        public final Long id;
+        public final String title;
+        public final int distance;
+
+        public Candidate(Long id, String title, int distance) {
+            this.id       = id;
+            this.title    = title;
+            this.distance = distance;
+        }
+    }
+}
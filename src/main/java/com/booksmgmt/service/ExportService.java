@@ -0,0 +1,191 @@
+package com.booksmgmt.service;
+
+import com.booksmgmt.model.Book;
+import com.booksmgmt.model.Memory;
+import com.booksmgmt.model.Quote;
+import com.booksmgmt.repository.BookRepository;
+import com.booksmgmt.repository.MemoryRepository;
+import com.booksmgmt.repository.QuoteRepository;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole library, every book with its quotes and memories, in one pass. Books,
+ * quotes and memories are read through three forward-only cursors ordered by book id and
+ * merged as they go, so memory use does not grow with the size of the library.
+ */
+@Service
+public class ExportService {
+
+    public enum Format { JSON, NDJSON, CSV }
+
+    private static final int CLEAR_EVERY = 500;
+    private static final List<String> CSV_HEADER = List.of(
+            "type", "bookId", "id", "title", "author", "genre", "isbn", "publisher", "year", "pages",
+            "location", "readStatus", "rating", "notes", "coverImagePath", "content", "pageNumber", "createdAt");
+
+    private final BookRepository bookRepository;
+    private final QuoteRepository quoteRepository;
+    private final MemoryRepository memoryRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(BookRepository bookRepository,
+                         QuoteRepository quoteRepository,
+                         MemoryRepository memoryRepository,
+                         EntityManager entityManager,
+                         ObjectMapper objectMapper) {
+        this.bookRepository = bookRepository;
+        this.quoteRepository = quoteRepository;
+        this.memoryRepository = memoryRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void export(Format format, OutputStream out) throws IOException {
+        try (Stream<Book> books = bookRepository.streamAllOrderById();
+             Stream<Quote> quotes = quoteRepository.streamAllOrderByBookId();
+             Stream<Memory> memories = memoryRepository.streamAllOrderByBookId()) {
+            Iterator<ExportedBook> rows = new MergingIterator(books.iterator(),
+                    new GroupingCursor<>(quotes.iterator(), q -> q.getBook().getId()),
+                    new GroupingCursor<>(memories.iterator(), m -> m.getBook().getId()));
+            switch (format) {
+                case JSON -> writeJson(rows, out);
+                case NDJSON -> writeNdjson(rows, out);
+                case CSV -> writeCsv(rows, out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeJson(Iterator<ExportedBook> rows, OutputStream out) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.writeStartArray();
+            while (rows.hasNext()) {
+                objectMapper.writeValue(gen, rows.next());
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    private void writeNdjson(Iterator<ExportedBook> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        while (rows.hasNext()) {
+            writer.write(objectMapper.writeValueAsString(rows.next()));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /** One record per book, quote and memory, told apart by the type column. */
+    private void writeCsv(Iterator<ExportedBook> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CsvWriter.writeRecord(writer, CSV_HEADER);
+        while (rows.hasNext()) {
+            ExportedBook row = rows.next();
+            Book b = row.book;
+            CsvWriter.writeRecord(writer, Arrays.asList("book", b.getId(), b.getId(), b.getTitle(), b.getAuthor(),
+                    b.getGenre(), b.getIsbn(), b.getPublisher(), b.getYear(), b.getPages(), b.getLocation(),
+                    b.getReadStatus(), b.getRating(), b.getNotes(), b.getCoverImagePath(), null, null, null));
+            for (Quote q : row.quotes) {
+                CsvWriter.writeRecord(writer, Arrays.asList("quote", b.getId(), q.getId(), null, null, null, null,
+                        null, null, null, null, null, null, null, null, q.getContent(), q.getPageNumber(), q.getCreatedAt()));
+            }
+            for (Memory m : row.memories) {
+                CsvWriter.writeRecord(writer, Arrays.asList("memory", b.getId(), m.getId(), null, null, null, null,
+                        null, null, null, null, null, null, null, null, m.getContent(), null, m.getCreatedAt()));
+            }
+        }
+        writer.flush();
+    }
+
+    public static class ExportedBook {
+        @JsonUnwrapped
+        public final Book book;
+        public final List<Quote> quotes;
+        public final List<Memory> memories;
+
+        public ExportedBook(Book book, List<Quote> quotes, List<Memory> memories) {
+            this.book     = book;
+            this.quotes   = quotes;
+            this.memories = memories;
+        }
+    }
+
+    /** Joins each book with its quotes and memories, clearing the persistence context as it goes. */
+    private class MergingIterator implements Iterator<ExportedBook> {
+        private final Iterator<Book> books;
+        private final GroupingCursor<Quote> quotes;
+        private final GroupingCursor<Memory> memories;
+        private int sinceClear;
+
+        MergingIterator(Iterator<Book> books, GroupingCursor<Quote> quotes, GroupingCursor<Memory> memories) {
+            this.books = books;
+            this.quotes = quotes;
+            this.memories = memories;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return books.hasNext();
+        }
+
+        @Override
+        public ExportedBook next() {
+            if (++sinceClear == CLEAR_EVERY) {
+                entityManager.clear();
+                sinceClear = 0;
+            }
+            // A child read ahead of its book leaves a proxy for it in the persistence context.
+            Book book = (Book) Hibernate.unproxy(books.next());
+            return new ExportedBook(book, quotes.take(book.getId()), memories.take(book.getId()));
+        }
+    }
+
+    /** Reads consecutive runs of children that belong to the same book from a cursor sorted by book id. */
+    private static class GroupingCursor<T> {
+        private final Iterator<T> source;
+        private final Function<T, Long> bookId;
+        private T pending;
+
+        GroupingCursor(Iterator<T> source, Function<T, Long> bookId) {
+            this.source = source;
+            this.bookId = bookId;
+        }
+
+        List<T> take(Long id) {
+            List<T> group = new ArrayList<>();
+            while (true) {
+                if (pending == null) {
+                    if (!source.hasNext()) return group;
+                    pending = source.next();
+                }
+                long pendingId = bookId.apply(pending);
+                if (pendingId > id) return group;
+                if (pendingId == id) group.add(pending);
+                pending = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.booksmgmt.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@Order(1)
+public class GoogleBooksProvider implements MetadataProvider {
+
+    private final String baseUrl;
+
+    public GoogleBooksProvider(@Value("${app.lookup.google-books-url:https://www.googleapis.com/books/v1/volumes}") String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public String name() {
+        return "google-books";
+    }
+
+    @Override
+    public URI searchUri(String title, String author) {
+        String query = "intitle:" + title + (author.isEmpty() ? "" : " inauthor:" + author);
+        return URI.create(baseUrl + "?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8) + "&maxResults=3");
+    }
+
+    @Override
+    public Optional<MetadataLookupService.BookMetadata> parse(JsonNode response) {
+        JsonNode items = response.path("items");
+        if (!items.isArray() || items.isEmpty()) return Optional.empty();
+
+        JsonNode info = items.get(0).path("volumeInfo");
+        String isbn = null;
+        for (String type : List.of("ISBN_13", "ISBN_10")) {
+            for (JsonNode id : info.path("industryIdentifiers")) {
+                if (isbn == null && type.equals(id.path("type").asText())) isbn = id.path("identifier").asText(null);
+            }
+        }
+
+        List<String> categories = new ArrayList<>();
+        info.path("categories").forEach(c -> categories.add(c.asText()));
+        String published = info.path("publishedDate").asText("");
+
+        List<String> covers = new ArrayList<>();
+        for (JsonNode item : items) {
+            String thumbnail = item.path("volumeInfo").path("imageLinks").path("thumbnail").asText(null);
+            if (thumbnail != null) covers.add(thumbnail.replace("http://", "https://"));
+        }
+
+        return Optional.of(new MetadataLookupService.BookMetadata(
+                categories.isEmpty() ? null : String.join(", ", categories),
+                info.path("publisher").asText(null),
+                published.matches("\\d{4}.*") ? Integer.valueOf(published.substring(0, 4)) : null,
+                info.hasNonNull("pageCount") ? info.get("pageCount").asInt() : null,
+                isbn,
+                covers));
+    }
+}
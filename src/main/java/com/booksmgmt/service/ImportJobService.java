@@ -0,0 +1,271 @@
+package com.booksmgmt.service;
+
+import com.booksmgmt.model.Book;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Imports books in fixed-size chunks, each saved in its own transaction, so one bad row costs
+ * at most its chunk a retry rather than the whole import. Duplicate titles are detected against
+ * a set of the library's normalized titles taken once per import. Every row ends up CREATED,
+ * DUPLICATE or FAILED, and a job can be polled while it runs.
+ */
+@Service
+public class ImportJobService {
+
+    private static final int MAX_TRACKED_JOBS = 50;
+
+    private final BookService bookService;
+    private final ChangeFeed changeFeed;
+    private final int chunkSize;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "book-import");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Map<String, ImportJob> jobs = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+                    return size() > MAX_TRACKED_JOBS;
+                }
+            });
+
+    public ImportJobService(BookService bookService,
+                            ChangeFeed changeFeed,
+                            @Value("${app.import.chunk-size:500}") int chunkSize) {
+        this.bookService = bookService;
+        this.changeFeed = changeFeed;
+        this.chunkSize = chunkSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Queues the rows for import in the background and returns the job immediately. */
+    public ImportJob submit(List<BookService.BookRequest> requests) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), requests.size(), true);
+        jobs.put(job.id, job);
+        Iterator<BookRowReader.Row> rows = requests.stream()
+                .map(req -> new BookRowReader.Row(req, null))
+                .iterator();
+        executor.execute(() -> run(job, rows));
+        return job;
+    }
+
+    /**
+     * Queues an NDJSON file for import in the background, reading it a row at a time, and
+     * deletes the file once the import is done. Returns the job immediately.
+     */
+    public ImportJob submitNdjson(Path file, ObjectReader json) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), null, true);
+        jobs.put(job.id, job);
+        executor.execute(() -> {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                run(job, BookRowReader.ndjson(reader, json));
+            } catch (IOException e) {
+                job.error = e.getMessage();
+                job.finish(ImportJob.State.FAILED);
+            } finally {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                }
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Imports rows on the calling thread as they are read, holding at most one chunk in memory.
+     * Only the rows that were not created are kept in the job's row results.
+     */
+    public ImportJob importStream(Iterator<BookRowReader.Row> rows) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), null, false);
+        jobs.put(job.id, job);
+        run(job, rows);
+        return job;
+    }
+
+    public Optional<ImportJob> findJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void run(ImportJob job, Iterator<BookRowReader.Row> rows) {
+        job.start();
+        try {
+            Set<String> knownTitles = bookService.findAllTitles();
+            List<BookRowReader.Row> chunk = new ArrayList<>(chunkSize);
+            int offset = 0;
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, chunk, offset, knownTitles);
+                    offset += chunk.size();
+                    chunk.clear();
+                }
+            }
+            importChunk(job, chunk, offset, knownTitles);
+            job.finish(ImportJob.State.DONE);
+        } catch (RuntimeException e) {
+            job.error = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            job.finish(ImportJob.State.FAILED);
+        }
+        // Clients reload once, rather than once per chunk or book by book.
+        if (job.getCreated() > 0) changeFeed.reset();
+    }
+
+    private void importChunk(ImportJob job, List<BookRowReader.Row> chunk, int offset, Set<String> knownTitles) {
+        List<Integer> rows = new ArrayList<>();
+        List<BookService.BookRequest> toSave = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        Set<String> chunkTitles = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            BookRowReader.Row row = chunk.get(i);
+            if (row.error != null) {
+                job.record(new RowResult(offset + i, RowStatus.FAILED, null, row.error));
+                continue;
+            }
+            BookService.BookRequest req = row.request;
+            if (req.title == null || req.title.isBlank()) {
+                job.record(new RowResult(offset + i, RowStatus.FAILED, null, "Title is required."));
+                continue;
+            }
+            String title = DuplicateTitleIndex.normalize(req.title);
+            if (knownTitles.contains(title) || !chunkTitles.add(title)) {
+                job.record(new RowResult(offset + i, RowStatus.DUPLICATE, null, "A book with this title already exists."));
+                continue;
+            }
+            rows.add(offset + i);
+            toSave.add(req);
+            titles.add(title);
+        }
+        if (toSave.isEmpty()) return;
+
+        try {
+            List<Book> saved = bookService.saveImported(toSave);
+            knownTitles.addAll(titles);
+            for (int i = 0; i < saved.size(); i++) {
+                job.record(new RowResult(rows.get(i), RowStatus.CREATED, saved.get(i).getId(), null));
+            }
+        } catch (RuntimeException chunkFailure) {
+            // Retry row by row so the failing rows can be told apart from the good ones.
+            for (int i = 0; i < toSave.size(); i++) {
+                try {
+                    Book book = bookService.saveImported(List.of(toSave.get(i))).get(0);
+                    knownTitles.add(titles.get(i));
+                    job.record(new RowResult(rows.get(i), RowStatus.CREATED, book.getId(), null));
+                } catch (RuntimeException e) {
+                    job.record(new RowResult(rows.get(i), RowStatus.FAILED, null,
+                            NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+                }
+            }
+        }
+    }
+
+    public enum RowStatus { CREATED, DUPLICATE, FAILED }
+
+    public static class RowResult {
+        public final int row;
+        public final RowStatus status;
+        public final Long bookId;
+        public final String message;
+
+        public RowResult(int row, RowStatus status, Long bookId, String message) {
+            this.row     = row;
+            this.status  = status;
+            this.bookId  = bookId;
+            this.message = message;
+        }
+    }
+
+    public static class ImportJob {
+        public enum State { QUEUED, RUNNING, DONE, FAILED }
+
+        public final String id;
+        /** Number of rows submitted, or null when rows are read as the import goes. */
+        public final Integer total;
+        public volatile String error;
+        private final boolean keepCreatedRows;
+        private final List<RowResult> rows = new ArrayList<>();
+        private int processed;
+        private volatile State state = State.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private int created;
+        private int duplicates;
+        private int failed;
+
+        ImportJob(String id, Integer total, boolean keepCreatedRows) {
+            this.id = id;
+            this.total = total;
+            this.keepCreatedRows = keepCreatedRows;
+        }
+
+        void start() {
+            startedAt = Instant.now();
+            state = State.RUNNING;
+        }
+
+        void finish(State state) {
+            finishedAt = Instant.now();
+            this.state = state;
+        }
+
+        synchronized void record(RowResult result) {
+            processed++;
+            if (keepCreatedRows || result.status != RowStatus.CREATED) rows.add(result);
+            switch (result.status) {
+                case CREATED -> created++;
+                case DUPLICATE -> duplicates++;
+                case FAILED -> failed++;
+            }
+        }
+
+        public State getState() { return state; }
+        public Instant getStartedAt() { return startedAt; }
+        public Instant getFinishedAt() { return finishedAt; }
+        public synchronized int getProcessed() { return processed; }
+        public synchronized int getCreated() { return created; }
+        public synchronized int getDuplicates() { return duplicates; }
+        public synchronized int getFailed() { return failed; }
+
+        public double getRowsPerSecond() {
+            if (startedAt == null) return 0;
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+            return getProcessed() * 1000.0 / millis;
+        }
+
+        /** Row results in the order rows were processed, starting at {@code from}. */
+        public synchronized List<RowResult> rows(int from, int limit) {
+            int start = Math.min(Math.max(from, 0), rows.size());
+            return List.copyOf(rows.subList(start, Math.min(start + Math.max(limit, 0), rows.size())));
+        }
+    }
+}
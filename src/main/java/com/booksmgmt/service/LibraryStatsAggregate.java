@@ -0,0 +1,179 @@
+package com.booksmgmt.service;
+
+import com.booksmgmt.model.Book;
+import com.booksmgmt.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Library statistics kept up to date as books are written, so that
+ * {@link BookService#getStats()} does not have to load the catalog. Status counters and the
+ * genre and author histograms are adjusted per book; genres and authors are additionally kept
+ * ranked so the dashboard ordering never needs a sort. The assembled {@link BookService.LibraryStats}
+ * is cached until the next write.
+ */
+@Component
+public class LibraryStatsAggregate {
+
+    private static final int TOP_AUTHORS = 8;
+
+    private final BookRepository bookRepository;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Long> statusCounts = new HashMap<>();
+    private final Histogram genres = new Histogram();
+    private final Histogram authors = new Histogram();
+    private volatile BookService.LibraryStats snapshot;
+
+    public LibraryStatsAggregate(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        List<Book> all = bookRepository.findAll();
+        synchronized (this) {
+            entries.clear();
+            statusCounts.clear();
+            genres.clear();
+            authors.clear();
+            all.forEach(this::add);
+            snapshot = null;
+        }
+    }
+
+    public synchronized void put(Book book) {
+        removeEntry(book.getId());
+        add(book);
+        snapshot = null;
+    }
+
+    public synchronized void putAll(Collection<Book> books) {
+        for (Book book : books) {
+            removeEntry(book.getId());
+            add(book);
+        }
+        snapshot = null;
+    }
+
+    /** Applies a bulk update of read status and genre, either of which may be null for unchanged. */
+    public synchronized void patch(Collection<Long> ids, String readStatus, String genre) {
+        for (Long id : ids) {
+            Entry entry = entries.get(id);
+            if (entry == null) continue;
+            removeEntry(id);
+            add(id, new Entry(readStatus != null ? readStatus : entry.readStatus, entry.author,
+                    genre != null ? Book.splitGenres(genre) : entry.genres));
+        }
+        snapshot = null;
+    }
+
+    public synchronized void remove(Long id) {
+        removeEntry(id);
+        snapshot = null;
+    }
+
+    public BookService.LibraryStats get() {
+        BookService.LibraryStats stats = snapshot;
+        if (stats != null) return stats;
+
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = new BookService.LibraryStats(
+                        entries.size(),
+                        statusCounts.getOrDefault("READ", 0L),
+                        statusCounts.getOrDefault("READING", 0L),
+                        statusCounts.getOrDefault("UNREAD", 0L),
+                        genres.top(Integer.MAX_VALUE),
+                        authors.top(TOP_AUTHORS));
+            }
+            return snapshot;
+        }
+    }
+
+    /** Distinct genre names in natural order, as tagged on at least one book. */
+    public synchronized List<String> genreNames() {
+        return new TreeSet<>(genres.counts.keySet()).stream().toList();
+    }
+
+    private void add(Book book) {
+        add(book.getId(), new Entry(book));
+    }
+
+    private void add(Long id, Entry entry) {
+        entries.put(id, entry);
+        if (entry.readStatus != null) statusCounts.merge(entry.readStatus, 1L, Long::sum);
+        for (String genre : entry.genres) genres.adjust(genre, 1);
+        if (entry.author != null) authors.adjust(entry.author, 1);
+    }
+
+    private void removeEntry(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) return;
+        if (entry.readStatus != null) statusCounts.merge(entry.readStatus, -1L, (a, b) -> a + b == 0 ? null : a + b);
+        for (String genre : entry.genres) genres.adjust(genre, -1);
+        if (entry.author != null) authors.adjust(entry.author, -1);
+    }
+
+    private static final class Entry {
+        final String readStatus;
+        final String author;
+        final List<String> genres;
+
+        Entry(Book book) {
+            this(book.getReadStatus(),
+                    book.getAuthor() != null && !book.getAuthor().isBlank() ? book.getAuthor() : null,
+                    Book.splitGenres(book.getGenre()));
+        }
+
+        Entry(String readStatus, String author, List<String> genres) {
+            this.readStatus = readStatus;
+            this.author = author;
+            this.genres = genres;
+        }
+    }
+
+    /** Counts per name, ranked by count descending and then by name. */
+    private static final class Histogram {
+        private static final Comparator<Map.Entry<String, Long>> RANKING =
+                Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey());
+
+        private final Map<String, Long> counts = new HashMap<>();
+        private final TreeSet<Map.Entry<String, Long>> ranked = new TreeSet<>(RANKING);
+
+        void adjust(String name, long delta) {
+            Long old = counts.get(name);
+            long count = (old != null ? old : 0) + delta;
+            if (old != null) ranked.remove(Map.entry(name, old));
+            if (count > 0) {
+                counts.put(name, count);
+                ranked.add(Map.entry(name, count));
+            } else {
+                counts.remove(name);
+            }
+        }
+
+        Map<String, Long> top(int limit) {
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> e : ranked) {
+                if (result.size() == limit) break;
+                result.put(e.getKey(), e.getValue());
+            }
+            return result;
+        }
+
+        void clear() {
+            counts.clear();
+            ranked.clear();
+        }
+    }
+}
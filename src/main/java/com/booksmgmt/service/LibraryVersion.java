@@ -0,0 +1,25 @@
+package com.booksmgmt.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A counter that changes whenever anything in the library does, used as the validator for
+ * conditional GETs of the library's JSON resources. Writers bump it once their change is
+ * committed; readers take it before querying, so a response is never tagged with a version
+ * newer than its data. It starts from the clock so tags do not repeat across restarts.
+ */
+@Component
+public class LibraryVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    public void bump() {
+        version.incrementAndGet();
+    }
+}
@@ -4,8 +4,13 @@ import com.booksmgmt.model.Book;
 import com.booksmgmt.model.Memory;
 import com.booksmgmt.repository.BookRepository;
 import com.booksmgmt.repository.MemoryRepository;
+import com.booksmgmt.repository.TombstoneRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,10 +19,21 @@ public class MemoryService {
 
     private final MemoryRepository memoryRepository;
     private final BookRepository bookRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final ContentSearchIndex contentIndex;
+    private final LibraryVersion libraryVersion;
+    private final ChangeFeed changeFeed;
 
-    public MemoryService(MemoryRepository memoryRepository, BookRepository bookRepository) {
+    public MemoryService(MemoryRepository memoryRepository, BookRepository bookRepository,
+                         TombstoneRepository tombstoneRepository,
+                         ContentSearchIndex contentIndex, LibraryVersion libraryVersion,
+                         ChangeFeed changeFeed) {
         this.memoryRepository = memoryRepository;
         this.bookRepository = bookRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.contentIndex = contentIndex;
+        this.libraryVersion = libraryVersion;
+        this.changeFeed = changeFeed;
     }
 
     public List<Memory> getByBookId(Long bookId) {
@@ -31,7 +47,36 @@ public class MemoryService {
         Memory memory = new Memory();
         memory.setContent(content);
         memory.setBook(book);
-        return memoryRepository.save(memory);
+        Memory saved = memoryRepository.save(memory);
+        contentIndex.put(saved);
+        libraryVersion.bump();
+        changeFeed.publish(ChangeFeed.Entity.MEMORY, ChangeFeed.Type.CREATED, saved.getId(), bookId, saved);
+        return saved;
+    }
+
+    /**
+     * Adds all memories to the book in one transaction. The book is referenced by id rather
+     * than loaded, and the inserts go out in JDBC batches. Returns null if the book does not exist.
+     */
+    @Transactional
+    public List<Memory> createAll(Long bookId, List<MemoryRequest> requests) {
+        if (!bookRepository.existsById(bookId)) return null;
+
+        Book book = bookRepository.getReferenceById(bookId);
+        List<Memory> memories = new ArrayList<>(requests.size());
+        for (MemoryRequest req : requests) {
+            Memory memory = new Memory();
+            memory.setContent(req.content);
+            memory.setBook(book);
+            memories.add(memory);
+        }
+        List<Memory> saved = memoryRepository.saveAll(memories);
+        AfterCommit.run(() -> {
+            contentIndex.putMemories(saved);
+            libraryVersion.bump();
+            saved.forEach(m -> changeFeed.publish(ChangeFeed.Entity.MEMORY, ChangeFeed.Type.CREATED, m.getId(), bookId, m));
+        });
+        return saved;
     }
 
     public Memory update(Long id, String content) {
@@ -40,14 +85,49 @@ public class MemoryService {
 
         Memory memory = opt.get();
         memory.setContent(content);
-        return memoryRepository.save(memory);
+        Memory saved = memoryRepository.save(memory);
+        contentIndex.put(saved);
+        libraryVersion.bump();
+        changeFeed.publish(ChangeFeed.Entity.MEMORY, ChangeFeed.Type.UPDATED, saved.getId(), saved.getBook().getId(), saved);
+        return saved;
     }
 
+    @Transactional
     public boolean delete(Long id) {
-        if (memoryRepository.existsById(id)) {
-            memoryRepository.deleteById(id);
-            return true;
-        }
-        return false;
+        Optional<Memory> opt = memoryRepository.findById(id);
+        if (opt.isEmpty()) return false;
+
+        Long bookId = opt.get().getBook().getId();
+        tombstoneRepository.recordMemories(bookId, List.of(id), Instant.now());
+        memoryRepository.delete(opt.get());
+        AfterCommit.run(() -> {
+            contentIndex.remove(ContentSearchIndex.Kind.MEMORY, id);
+            libraryVersion.bump();
+            changeFeed.publish(ChangeFeed.Entity.MEMORY, ChangeFeed.Type.DELETED, id, bookId, null);
+        });
+        return true;
+    }
+
+    /**
+     * Deletes those of the given memories that belong to the book and returns how many there
+     * were; ids of other books' memories are ignored.
+     */
+    @Transactional
+    public int deleteAll(Long bookId, Collection<Long> ids) {
+        if (ids.isEmpty()) return 0;
+        List<Long> owned = memoryRepository.findIdsByBookIdAndIdIn(bookId, ids);
+        if (owned.isEmpty()) return 0;
+        tombstoneRepository.recordMemories(bookId, owned, Instant.now());
+        int deleted = memoryRepository.deleteByBookIdAndIdIn(bookId, owned);
+        AfterCommit.run(() -> {
+            contentIndex.removeAll(ContentSearchIndex.Kind.MEMORY, bookId, owned);
+            libraryVersion.bump();
+            owned.forEach(id -> changeFeed.publish(ChangeFeed.Entity.MEMORY, ChangeFeed.Type.DELETED, id, bookId, null));
+        });
+        return deleted;
+    }
+
+    public static class MemoryRequest {
+        public String content;
     }
 }
@@ -0,0 +1,240 @@
+package com.booksmgmt.service;
+
+import com.booksmgmt.model.LookupCacheEntry;
+import com.booksmgmt.repository.LookupCacheRepository;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Looks up book metadata from all {@link MetadataProvider}s at once and merges the answers.
+ * Results, including "not found", are kept in a bounded LRU cache with a time to live that is
+ * mirrored in the lookup_cache table, so retries and restarts do not query the providers
+ * again. Concurrent lookups of the same book share one set of provider calls.
+ */
+@Service
+public class MetadataLookupService {
+
+    private static final Logger log = LoggerFactory.getLogger(MetadataLookupService.class);
+    private static final int MAX_COVERS = 6;
+    private static final int MAX_KEY_LENGTH = 512;
+
+    private final List<MetadataProvider> providers;
+    private final LookupCacheRepository cacheRepository;
+    private final ObjectMapper objectMapper;
+    private final int cacheSize;
+    private final Duration ttl;
+    private final Duration requestTimeout;
+    private final HttpClient client;
+    private final Map<String, CompletableFuture<Optional<BookMetadata>>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> evicted = ConcurrentHashMap.newKeySet();
+    private final Map<String, CachedLookup> cache;
+
+    public MetadataLookupService(List<MetadataProvider> providers,
+                                 LookupCacheRepository cacheRepository,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.lookup.cache-size:1000}") int cacheSize,
+                                 @Value("${app.lookup.cache-ttl:7d}") Duration ttl,
+                                 @Value("${app.lookup.connect-timeout:3s}") Duration connectTimeout,
+                                 @Value("${app.lookup.request-timeout:5s}") Duration requestTimeout) {
+        this.providers = providers;
+        this.cacheRepository = cacheRepository;
+        this.objectMapper = objectMapper;
+        this.cacheSize = cacheSize;
+        this.ttl = ttl;
+        this.requestTimeout = requestTimeout;
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedLookup> eldest) {
+                if (size() <= cacheSize) return false;
+                evicted.add(eldest.getKey());
+                return true;
+            }
+        });
+    }
+
+    /** Drops expired rows and loads the most recent ones into memory. */
+    @PostConstruct
+    public void load() {
+        Instant cutoff = Instant.now().minus(ttl);
+        cacheRepository.deleteFetchedBefore(cutoff);
+        List<LookupCacheEntry> entries =
+                cacheRepository.findByFetchedAtAfterOrderByFetchedAtDesc(cutoff, PageRequest.of(0, cacheSize));
+        // Oldest first, so the most recent ones end up as the most recently used.
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            LookupCacheEntry entry = entries.get(i);
+            try {
+                cache.put(entry.getCacheKey(), new CachedLookup(read(entry.getPayload()), entry.getFetchedAt()));
+            } catch (JsonProcessingException e) {
+                cacheRepository.deleteById(entry.getCacheKey());
+            }
+        }
+        flushEvictions();
+    }
+
+    public Optional<BookMetadata> lookup(String title, String author) {
+        String normalizedTitle = normalize(title);
+        String normalizedAuthor = author != null ? normalize(author) : "";
+        String key = normalizedTitle + "|" + normalizedAuthor;
+
+        CachedLookup cached = cache.get(key);
+        if (cached != null && cached.fetchedAt.isAfter(Instant.now().minus(ttl))) {
+            return Optional.ofNullable(cached.metadata);
+        }
+
+        CompletableFuture<Optional<BookMetadata>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<BookMetadata>> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) return existing.join();
+        try {
+            Optional<BookMetadata> result = fetch(key, title.trim(), author != null ? author.trim() : "");
+            pending.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    /** Queries every provider concurrently and caches the merged result if none of them failed. */
+    private Optional<BookMetadata> fetch(String key, String title, String author) {
+        List<CompletableFuture<Optional<BookMetadata>>> calls = new ArrayList<>();
+        for (MetadataProvider provider : providers) {
+            HttpRequest request = HttpRequest.newBuilder(provider.searchUri(title, author))
+                    .timeout(requestTimeout)
+                    .header("Accept", "application/json")
+                    .build();
+            calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> {
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException(provider.name() + " returned " + response.statusCode());
+                        }
+                        try {
+                            return provider.parse(objectMapper.readTree(response.body()));
+                        } catch (JsonProcessingException e) {
+                            throw new IllegalStateException(provider.name() + " returned invalid JSON", e);
+                        }
+                    }));
+        }
+
+        List<BookMetadata> found = new ArrayList<>();
+        boolean complete = true;
+        for (int i = 0; i < calls.size(); i++) {
+            try {
+                calls.get(i).join().ifPresent(found::add);
+            } catch (RuntimeException e) {
+                complete = false;
+                log.warn("Metadata lookup via {} failed: {}", providers.get(i).name(), e.getMessage());
+            }
+        }
+
+        BookMetadata merged = found.isEmpty() ? null : merge(found);
+        if (complete) store(key, merged);
+        return Optional.ofNullable(merged);
+    }
+
+    private void store(String key, BookMetadata metadata) {
+        Instant now = Instant.now();
+        cache.put(key, new CachedLookup(metadata, now));
+        // Keys too long for the table are only cached in memory.
+        if (key.length() > MAX_KEY_LENGTH) return;
+        try {
+            String payload = metadata != null ? objectMapper.writeValueAsString(metadata) : null;
+            cacheRepository.save(new LookupCacheEntry(key, payload, now));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        flushEvictions();
+    }
+
+    /** Removes the rows of entries the in-memory cache has evicted, keeping the table bounded. */
+    private void flushEvictions() {
+        for (String key : List.copyOf(evicted)) {
+            evicted.remove(key);
+            if (!cache.containsKey(key)) cacheRepository.deleteById(key);
+        }
+    }
+
+    /** Takes each field from the first provider that has it; cover options are pooled. */
+    private static BookMetadata merge(List<BookMetadata> results) {
+        String genre = null, publisher = null, isbn = null;
+        Integer year = null, pages = null;
+        Set<String> covers = new LinkedHashSet<>();
+        for (BookMetadata r : results) {
+            if (genre == null) genre = r.genre;
+            if (publisher == null) publisher = r.publisher;
+            if (year == null) year = r.year;
+            if (pages == null) pages = r.pages;
+            if (isbn == null) isbn = r.isbn;
+            covers.addAll(r.covers);
+        }
+        return new BookMetadata(genre, publisher, year, pages, isbn,
+                covers.stream().limit(MAX_COVERS).toList());
+    }
+
+    private BookMetadata read(String payload) throws JsonProcessingException {
+        return payload != null ? objectMapper.readValue(payload, BookMetadata.class) : null;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class CachedLookup {
+        final BookMetadata metadata;
+        final Instant fetchedAt;
+
+        CachedLookup(BookMetadata metadata, Instant fetchedAt) {
+            this.metadata = metadata;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    public static class BookMetadata {
+        public final String genre;
+        public final String publisher;
+        public final Integer year;
+        public final Integer pages;
+        public final String isbn;
+        public final List<String> covers;
+
+        @JsonCreator
+        public BookMetadata(String genre, String publisher, Integer year, Integer pages,
+                            String isbn, List<String> covers) {
+            this.genre     = genre;
+            this.publisher = publisher;
+            this.year      = year;
+            this.pages     = pages;
+            this.isbn      = isbn;
+            this.covers    = covers != null ? covers : List.of();
+        }
+    }
+}
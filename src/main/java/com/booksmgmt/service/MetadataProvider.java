@@ -0,0 +1,21 @@
+package com.booksmgmt.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * A book metadata source queried by {@link MetadataLookupService}. Providers only build the
+ * search URL and read the JSON response; the service does the HTTP calls and the caching.
+ * Providers are consulted in {@code @Order}, earlier ones winning when results are merged.
+ */
+public interface MetadataProvider {
+
+    String name();
+
+    URI searchUri(String title, String author);
+
+    /** Reads the search response, or returns empty if the provider found no match. */
+    Optional<MetadataLookupService.BookMetadata> parse(JsonNode response);
+}
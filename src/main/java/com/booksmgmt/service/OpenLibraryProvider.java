@@ -0,0 +1,77 @@
+package com.booksmgmt.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@Order(2)
+public class OpenLibraryProvider implements MetadataProvider {
+
+    private static final String FIELDS =
+            "title,author_name,publisher,first_publish_year,number_of_pages_median,subject,isbn,cover_i";
+
+    private final String baseUrl;
+    private final String coversUrl;
+
+    public OpenLibraryProvider(@Value("${app.lookup.open-library-url:https://openlibrary.org/search.json}") String baseUrl,
+                               @Value("${app.lookup.open-library-covers-url:https://covers.openlibrary.org/b/id/}") String coversUrl) {
+        this.baseUrl = baseUrl;
+        this.coversUrl = coversUrl;
+    }
+
+    @Override
+    public String name() {
+        return "open-library";
+    }
+
+    @Override
+    public URI searchUri(String title, String author) {
+        String query = "?title=" + URLEncoder.encode(title, StandardCharsets.UTF_8)
+                + (author.isEmpty() ? "" : "&author=" + URLEncoder.encode(author, StandardCharsets.UTF_8))
+                + "&limit=3&fields=" + FIELDS;
+        return URI.create(baseUrl + query);
+    }
+
+    @Override
+    public Optional<MetadataLookupService.BookMetadata> parse(JsonNode response) {
+        JsonNode docs = response.path("docs");
+        if (!docs.isArray() || docs.isEmpty()) return Optional.empty();
+
+        JsonNode doc = docs.get(0);
+        List<String> subjects = new ArrayList<>();
+        for (JsonNode subject : doc.path("subject")) {
+            if (subjects.size() == 3) break;
+            subjects.add(subject.asText());
+        }
+
+        String isbn = null;
+        for (int length : new int[]{13, 10}) {
+            for (JsonNode candidate : doc.path("isbn")) {
+                if (isbn == null && candidate.asText().length() == length) isbn = candidate.asText();
+            }
+        }
+        if (isbn == null && doc.path("isbn").size() > 0) isbn = doc.path("isbn").get(0).asText();
+
+        List<String> covers = new ArrayList<>();
+        for (JsonNode d : docs) {
+            if (d.hasNonNull("cover_i")) covers.add(coversUrl + d.get("cover_i").asText() + "-M.jpg");
+        }
+
+        return Optional.of(new MetadataLookupService.BookMetadata(
+                subjects.isEmpty() ? null : String.join(", ", subjects),
+                doc.path("publisher").path(0).asText(null),
+                doc.hasNonNull("first_publish_year") ? doc.get("first_publish_year").asInt() : null,
+                doc.hasNonNull("number_of_pages_median") ? doc.get("number_of_pages_median").asInt() : null,
+                isbn,
+                covers));
+    }
+}
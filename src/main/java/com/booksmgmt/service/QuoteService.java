@@ -4,8 +4,13 @@ import com.booksmgmt.model.Book;
 import com.booksmgmt.model.Quote;
 import com.booksmgmt.repository.BookRepository;
 import com.booksmgmt.repository.QuoteRepository;
+import com.booksmgmt.repository.TombstoneRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,10 +19,21 @@ public class QuoteService {
 
     private final QuoteRepository quoteRepository;
     private final BookRepository bookRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final ContentSearchIndex contentIndex;
+    private final LibraryVersion libraryVersion;
+    private final ChangeFeed changeFeed;
 
-    public QuoteService(QuoteRepository quoteRepository, BookRepository bookRepository) {
+    public QuoteService(QuoteRepository quoteRepository, BookRepository bookRepository,
+                         TombstoneRepository tombstoneRepository,
+                         ContentSearchIndex contentIndex, LibraryVersion libraryVersion,
+                         ChangeFeed changeFeed) {
         this.quoteRepository = quoteRepository;
         this.bookRepository = bookRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.contentIndex = contentIndex;
+        this.libraryVersion = libraryVersion;
+        this.changeFeed = changeFeed;
     }
 
     public List<Quote> getByBookId(Long bookId) {
@@ -32,7 +48,37 @@ public class QuoteService {
         quote.setContent(content);
         quote.setPageNumber(pageNumber);
         quote.setBook(book);
-        return quoteRepository.save(quote);
+        Quote saved = quoteRepository.save(quote);
+        contentIndex.put(saved);
+        libraryVersion.bump();
+        changeFeed.publish(ChangeFeed.Entity.QUOTE, ChangeFeed.Type.CREATED, saved.getId(), bookId, saved);
+        return saved;
+    }
+
+    /**
+     * Adds all quotes to the book in one transaction. The book is referenced by id rather than
+     * loaded, and the inserts go out in JDBC batches. Returns null if the book does not exist.
+     */
+    @Transactional
+    public List<Quote> createAll(Long bookId, List<QuoteRequest> requests) {
+        if (!bookRepository.existsById(bookId)) return null;
+
+        Book book = bookRepository.getReferenceById(bookId);
+        List<Quote> quotes = new ArrayList<>(requests.size());
+        for (QuoteRequest req : requests) {
+            Quote quote = new Quote();
+            quote.setContent(req.content);
+            quote.setPageNumber(req.pageNumber);
+            quote.setBook(book);
+            quotes.add(quote);
+        }
+        List<Quote> saved = quoteRepository.saveAll(quotes);
+        AfterCommit.run(() -> {
+            contentIndex.putQuotes(saved);
+            libraryVersion.bump();
+            saved.forEach(q -> changeFeed.publish(ChangeFeed.Entity.QUOTE, ChangeFeed.Type.CREATED, q.getId(), bookId, q));
+        });
+        return saved;
     }
 
     public Quote update(Long id, String content, Integer pageNumber) {
@@ -42,14 +88,50 @@ public class QuoteService {
         Quote quote = opt.get();
         quote.setContent(content);
         quote.setPageNumber(pageNumber);
-        return quoteRepository.save(quote);
+        Quote saved = quoteRepository.save(quote);
+        contentIndex.put(saved);
+        libraryVersion.bump();
+        changeFeed.publish(ChangeFeed.Entity.QUOTE, ChangeFeed.Type.UPDATED, saved.getId(), saved.getBook().getId(), saved);
+        return saved;
     }
 
+    @Transactional
     public boolean delete(Long id) {
-        if (quoteRepository.existsById(id)) {
-            quoteRepository.deleteById(id);
-            return true;
-        }
-        return false;
+        Optional<Quote> opt = quoteRepository.findById(id);
+        if (opt.isEmpty()) return false;
+
+        Long bookId = opt.get().getBook().getId();
+        tombstoneRepository.recordQuotes(bookId, List.of(id), Instant.now());
+        quoteRepository.delete(opt.get());
+        AfterCommit.run(() -> {
+            contentIndex.remove(ContentSearchIndex.Kind.QUOTE, id);
+            libraryVersion.bump();
+            changeFeed.publish(ChangeFeed.Entity.QUOTE, ChangeFeed.Type.DELETED, id, bookId, null);
+        });
+        return true;
+    }
+
+    /**
+     * Deletes those of the given quotes that belong to the book and returns how many there
+     * were; ids of other books' quotes are ignored.
+     */
+    @Transactional
+    public int deleteAll(Long bookId, Collection<Long> ids) {
+        if (ids.isEmpty()) return 0;
+        List<Long> owned = quoteRepository.findIdsByBookIdAndIdIn(bookId, ids);
+        if (owned.isEmpty()) return 0;
+        tombstoneRepository.recordQuotes(bookId, owned, Instant.now());
+        int deleted = quoteRepository.deleteByBookIdAndIdIn(bookId, owned);
+        AfterCommit.run(() -> {
+            contentIndex.removeAll(ContentSearchIndex.Kind.QUOTE, bookId, owned);
+            libraryVersion.bump();
+            owned.forEach(id -> changeFeed.publish(ChangeFeed.Entity.QUOTE, ChangeFeed.Type.DELETED, id, bookId, null));
+        });
+        return deleted;
+    }
+
+    public static class QuoteRequest {
+        public String content;
+        public Integer pageNumber;
     }
 }
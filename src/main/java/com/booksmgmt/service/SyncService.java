@@ -0,0 +1,100 @@
+package com.booksmgmt.service;
+
+import com.booksmgmt.model.Book;
+import com.booksmgmt.model.Memory;
+import com.booksmgmt.model.Quote;
+import com.booksmgmt.model.Tombstone;
+import com.booksmgmt.repository.BookRepository;
+import com.booksmgmt.repository.MemoryRepository;
+import com.booksmgmt.repository.QuoteRepository;
+import com.booksmgmt.repository.TombstoneRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Answers "what changed since version N" for clients that keep a copy of the library. The
+ * version is a time in epoch milliseconds: rows are found through their updatedAt index and
+ * deletions through tombstones, which are kept for {@code app.sync.tombstone-retention}. A
+ * client further behind than that, or new, gets everything.
+ * <p>
+ * Rows are stamped shortly before their transaction commits, so a write may become visible
+ * after a sync that started later than its stamp. The version handed back therefore lags the
+ * sync by {@code app.sync.overlap}, and the next sync sends the latest rows again; applying a
+ * row twice is harmless.
+ */
+@Service
+public class SyncService {
+
+    private final BookRepository bookRepository;
+    private final QuoteRepository quoteRepository;
+    private final MemoryRepository memoryRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final Duration tombstoneRetention;
+    private final Duration overlap;
+
+    public SyncService(BookRepository bookRepository,
+                       QuoteRepository quoteRepository,
+                       MemoryRepository memoryRepository,
+                       TombstoneRepository tombstoneRepository,
+                       @Value("${app.sync.tombstone-retention:90d}") Duration tombstoneRetention,
+                       @Value("${app.sync.overlap:10s}") Duration overlap) {
+        this.bookRepository = bookRepository;
+        this.quoteRepository = quoteRepository;
+        this.memoryRepository = memoryRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.tombstoneRetention = tombstoneRetention;
+        this.overlap = overlap;
+    }
+
+    /** Drops tombstones no client can still need; older clients resynchronize from scratch. */
+    @PostConstruct
+    public void pruneTombstones() {
+        tombstoneRepository.deleteDeletedBefore(Instant.now().minus(tombstoneRetention));
+    }
+
+    /** Returns what changed after {@code since}, or everything if it is null, too old or ahead of us. */
+    @Transactional(readOnly = true)
+    public SyncResult changesSince(Long since) {
+        Instant now = Instant.now();
+        long version = now.minus(overlap).toEpochMilli();
+        if (since == null || since > now.toEpochMilli()
+                || Instant.ofEpochMilli(since).isBefore(now.minus(tombstoneRetention))) {
+            return new SyncResult(version, true, bookRepository.findAll(), quoteRepository.findAll(),
+                    memoryRepository.findAll(), List.of());
+        }
+
+        Instant after = Instant.ofEpochMilli(since);
+        return new SyncResult(Math.max(version, since), false,
+                bookRepository.findByUpdatedAtAfter(after),
+                quoteRepository.findByUpdatedAtAfter(after),
+                memoryRepository.findByUpdatedAtAfter(after),
+                tombstoneRepository.findByDeletedAtAfterOrderByDeletedAt(after));
+    }
+
+    public static class SyncResult {
+        /** Pass as {@code since} on the next sync. */
+        public final long version;
+        /** True when the lists hold the whole library and the client should replace its copy. */
+        public final boolean full;
+        public final List<Book> books;
+        public final List<Quote> quotes;
+        public final List<Memory> memories;
+        public final List<Tombstone> deleted;
+
+        public SyncResult(long version, boolean full, List<Book> books, List<Quote> quotes,
+                          List<Memory> memories, List<Tombstone> deleted) {
+            this.version  = version;
+            this.full     = full;
+            this.books    = books;
+            this.quotes   = quotes;
+            this.memories = memories;
+            this.deleted  = deleted;
+        }
+    }
+}
@@ -5,8 +5,17 @@ let pendingBooks = [];
 let lastFetchedQuery = null;
 let assignMode = false;
 let selectedIds = new Set();
+const PAGE_SIZE = 60;
+let nextCursor = null;
+let loadingMore = false;
+let loadGeneration = 0;
+// Books on the grid by id, and changes from the feed held back while a page is loading.
+let shownBooks = new Map();
+let loadsInFlight = 0;
+let heldChanges = [];
 
 document.addEventListener('DOMContentLoaded', () => {
+    openChangeFeed();
     loadBooks();
     loadGenres();
     loadStats();
@@ -20,10 +29,12 @@ document.addEventListener('DOMContentLoaded', () => {
     document.getElementById('confirmDelete').addEventListener('click', handleDelete);
 
     document.getElementById('searchInput').addEventListener('input', debounce(loadBooks, 300));
+    document.getElementById('contentSearchInput').addEventListener('input', debounce(searchContent, 300));
     document.getElementById('genreFilter').addEventListener('change', loadBooks);
     document.getElementById('readStatusFilter').addEventListener('change', loadBooks);
     document.getElementById('locationFilter').addEventListener('change', loadBooks);
     document.getElementById('assignLocationsBtn').addEventListener('click', enterAssignMode);
+    window.addEventListener('scroll', maybeLoadMore, { passive: true });
 
     // Star rating
     document.querySelectorAll('#starRating .star').forEach(star => {
@@ -75,9 +86,7 @@ document.addEventListener('DOMContentLoaded', () => {
     });
 });
 
-async function loadBooks() {
-    if (assignMode) return;
-
+function currentFilterParams() {
     const params = new URLSearchParams();
     const search = document.getElementById('searchInput').value.trim();
     const genre = document.getElementById('genreFilter').value;
@@ -88,27 +97,72 @@ async function loadBooks() {
     if (genre) params.set('genre', genre);
     if (readStatus) params.set('readStatus', readStatus);
     if (noLocation) params.set('noLocation', 'true');
+    params.set('limit', PAGE_SIZE);
+    return params;
+}
 
-    const url = params.toString() ? `${API}?${params}` : API;
-    const res = await fetch(url);
-    const books = await res.json();
+async function loadBooks() {
+    if (assignMode) return;
 
-    const grid = document.getElementById('booksGrid');
-    const empty = document.getElementById('emptyState');
+    // Filters may change while a page is in flight; only the latest load may render.
+    const generation = ++loadGeneration;
+    loadsInFlight++;
+    try {
+        const res = await fetch(`${API}?${currentFilterParams()}`);
+        const page = await res.json();
+        if (generation !== loadGeneration) return;
+        nextCursor = page.nextCursor;
+        shownBooks = new Map(page.items.map(book => [book.id, book]));
+
+        const grid = document.getElementById('booksGrid');
+        const empty = document.getElementById('emptyState');
+
+        if (page.items.length === 0) {
+            grid.innerHTML = '';
+            empty.style.display = 'block';
+            return;
+        }
 
-    if (books.length === 0) {
-        grid.innerHTML = '';
-        empty.style.display = 'block';
-        return;
+        empty.style.display = 'none';
+        grid.innerHTML = page.items.map(book => renderCard(book)).join('');
+    } finally {
+        loadFinished();
     }
+    maybeLoadMore();
+}
+
+async function loadMoreBooks() {
+    const generation = loadGeneration;
+    const params = currentFilterParams();
+    params.set('after', nextCursor);
+
+    loadingMore = true;
+    loadsInFlight++;
+    try {
+        const res = await fetch(`${API}?${params}`);
+        if (!res.ok) return;
+        const page = await res.json();
+        if (generation !== loadGeneration || assignMode) return;
+        nextCursor = page.nextCursor;
+        page.items.forEach(book => shownBooks.set(book.id, book));
+        document.getElementById('booksGrid')
+            .insertAdjacentHTML('beforeend', page.items.map(book => renderCard(book)).join(''));
+    } finally {
+        loadingMore = false;
+        loadFinished();
+    }
+    maybeLoadMore();
+}
 
-    empty.style.display = 'none';
-    grid.innerHTML = books.map(book => renderCard(book)).join('');
+function maybeLoadMore() {
+    if (assignMode || loadingMore || !nextCursor) return;
+    const gridBottom = document.getElementById('booksGrid').getBoundingClientRect().bottom;
+    if (gridBottom < window.innerHeight + 600) loadMoreBooks();
 }
 
 function renderCard(book) {
     const coverHtml = book.coverImagePath
-        ? `<img class="book-cover" src="${book.coverImagePath}" alt="${escapeHtml(book.title)}">`
+        ? `<img class="book-cover" src="${book.coverThumbPath || book.coverImagePath}" loading="lazy" alt="${escapeHtml(book.title)}">`
         : `<div class="book-cover-placeholder">${escapeHtml(book.title.charAt(0).toUpperCase())}</div>`;
 
     const starsHtml = renderStars(book.rating);
@@ -144,7 +198,7 @@ function renderCard(book) {
                 </div>`;
 
     return `
-        <div class="${cardClass}" onclick="${cardOnclick}">
+        <div class="${cardClass}" data-id="${book.id}" onclick="${cardOnclick}">
             ${checkboxHtml}
             ${coverHtml}
             <div class="book-info">
@@ -160,6 +214,101 @@ function renderCard(book) {
     `;
 }
 
+// Follows the server's change feed, so saves from this tab or any other show up without
+// reloading the grid. EventSource reconnects by itself and the server replays what was missed.
+function openChangeFeed() {
+    const source = new EventSource('/api/changes');
+    source.addEventListener('change', (e) => applyChange(JSON.parse(e.data)));
+}
+
+// Genres and stats are small; refetch them once a burst of changes has passed.
+const refreshSummaries = debounce(() => {
+    loadGenres();
+    if (!assignMode) loadStats();
+}, 500);
+
+function applyChange(change) {
+    // A page being loaded may predate the change, so it is applied after the page renders.
+    if (loadsInFlight > 0) {
+        heldChanges.push(change);
+        return;
+    }
+    if (change.type === 'reset') {
+        loadBooks();
+        refreshSummaries();
+        return;
+    }
+    if (change.entity !== 'book') return;
+    refreshSummaries();
+
+    if (change.type === 'deleted') {
+        removeCard(change.id);
+    } else if (!assignMode) {
+        // Updates may carry only the fields that changed; they apply to books already shown.
+        const shown = shownBooks.get(change.id);
+        const complete = 'title' in change.data;
+        if (!shown && !complete) return;
+        const book = shown ? { ...shown, ...change.data } : change.data;
+        removeCard(book.id);
+        if (matchesFilters(book, !!shown)) insertCard(book);
+    }
+    document.getElementById('emptyState').style.display = shownBooks.size === 0 ? 'block' : 'none';
+    maybeLoadMore();
+}
+
+function loadFinished() {
+    if (--loadsInFlight > 0) return;
+    const changes = heldChanges;
+    heldChanges = [];
+    changes.forEach(applyChange);
+}
+
+// Mirrors the server's filters. Search matching cannot be, so while searching only books
+// already in the results are kept.
+function matchesFilters(book, shown) {
+    const params = currentFilterParams();
+    if (params.has('search') && !shown) return false;
+    const genre = params.get('genre');
+    if (genre) {
+        const genres = (book.genre || '').split(',').map(g => g.trim().toLowerCase());
+        if (!genres.includes(genre.trim().toLowerCase())) return false;
+    }
+    if (params.has('readStatus') && book.readStatus !== params.get('readStatus')) return false;
+    if (params.has('noLocation') && book.location) return false;
+    return true;
+}
+
+// Grid order: highest rated first, unrated last, then by id.
+function compareBooks(a, b) {
+    if (a.rating !== b.rating) {
+        if (a.rating == null) return 1;
+        if (b.rating == null) return -1;
+        return b.rating - a.rating;
+    }
+    return a.id - b.id;
+}
+
+// Places the card in order among the loaded books. A book that sorts after all of them is
+// left to a later page, unless this is the last one.
+function insertCard(book) {
+    const grid = document.getElementById('booksGrid');
+    const before = [...grid.children].find(card => compareBooks(book, shownBooks.get(Number(card.dataset.id))) < 0);
+    if (!before && nextCursor) return;
+    shownBooks.set(book.id, book);
+    const html = renderCard(book);
+    if (before) {
+        before.insertAdjacentHTML('beforebegin', html);
+    } else {
+        grid.insertAdjacentHTML('beforeend', html);
+    }
+}
+
+function removeCard(id) {
+    shownBooks.delete(id);
+    const card = document.querySelector(`#booksGrid .book-card[data-id="${id}"]`);
+    if (card) card.remove();
+}
+
 function renderStars(rating) {
     let html = '';
     for (let i = 1; i <= 5; i++) {
@@ -203,6 +352,7 @@ function openModal(book) {
     if (book) {
         document.getElementById('modalTitle').textContent = 'Edit Book';
         document.getElementById('bookId').value = book.id;
+        document.getElementById('bookVersion').value = book.version ?? '';
         document.getElementById('title').value = book.title || '';
         document.getElementById('author').value = book.author || '';
         document.getElementById('genre').value = book.genre || '';
@@ -218,7 +368,7 @@ function openModal(book) {
 
         if (book.coverImagePath) {
             document.getElementById('imagePreview').innerHTML =
-                `<img src="${book.coverImagePath}" alt="Current cover">`;
+                `<img src="${book.coverThumbPath || book.coverImagePath}" alt="Current cover">`;
         }
 
         document.getElementById('addAnotherBtn').style.display = 'none';
@@ -226,6 +376,7 @@ function openModal(book) {
     } else {
         document.getElementById('modalTitle').textContent = 'Add Book';
         document.getElementById('bookId').value = '';
+        document.getElementById('bookVersion').value = '';
         pendingBooks = [];
         updateQueuedCount();
         document.getElementById('addAnotherBtn').style.display = '';
@@ -281,17 +432,22 @@ async function handleSubmit(e) {
             formData.append('coverImageUrl', googleBooksThumbnailUrl);
         }
 
+        // Saving over a newer version, say from another tab, is refused rather than lost.
+        const version = document.getElementById('bookVersion').value;
+        if (version) formData.append('version', version);
+
         const res = await fetch(`${API}/${id}`, { method: 'PUT', body: formData });
         if (res.ok) {
             closeModal();
-            loadBooks();
-            loadGenres();
-            loadStats();
+        } else {
+            const data = await res.json().catch(() => ({}));
+            showFormError(data.error || 'Failed to save the book.');
         }
     } else {
         // Add mode — batch JSON submit
         const currentBook = captureBookFromForm();
         if (!currentBook.title) return;
+        if (!(await checkDuplicateTitle(currentBook.title))) return;
 
         const allBooks = [...pendingBooks, currentBook];
         const res = await fetch(`${API}/batch`, {
@@ -302,9 +458,6 @@ async function handleSubmit(e) {
         if (res.ok) {
             pendingBooks = [];
             closeModal();
-            loadBooks();
-            loadGenres();
-            loadStats();
         } else {
             const data = await res.json();
             showFormError(data.error || 'Failed to save books.');
@@ -351,15 +504,7 @@ async function saveAndAddAnother() {
         return;
     }
 
-    // Check against database
-    const res = await fetch(`${API}?search=${encodeURIComponent(title)}`);
-    if (res.ok) {
-        const books = await res.json();
-        if (books.some(b => b.title.toLowerCase() === titleLower)) {
-            showFormError(`A book with this title already exists.`);
-            return;
-        }
-    }
+    if (!(await checkDuplicateTitle(title))) return;
 
     clearFormError();
     const book = captureBookFromForm();
@@ -377,6 +522,23 @@ async function saveAndAddAnother() {
     document.getElementById('title').focus();
 }
 
+// Asks the server for books with the same or a nearly identical title. An exact match blocks
+// the save; a near match ("The Hobit") is saved only if the user confirms.
+async function checkDuplicateTitle(title) {
+    const res = await fetch(`${API}/duplicates?title=${encodeURIComponent(title)}`);
+    if (!res.ok) return true;
+    const candidates = await res.json();
+    if (candidates.some(c => c.distance === 0)) {
+        showFormError(`A book with this title already exists: "${candidates[0].title}".`);
+        return false;
+    }
+    if (candidates.length > 0) {
+        const similar = candidates.slice(0, 3).map(c => `"${c.title}"`).join(', ');
+        return confirm(`Your library already has ${similar}. Add "${title}" anyway?`);
+    }
+    return true;
+}
+
 function updateQueuedCount() {
     const badge = document.getElementById('queuedCount');
     if (pendingBooks.length > 0) {
@@ -403,9 +565,6 @@ async function handleDelete() {
     if (deleteBookId) {
         await fetch(`${API}/${deleteBookId}`, { method: 'DELETE' });
         closeDeleteModal();
-        loadBooks();
-        loadGenres();
-        loadStats();
     }
 }
 
@@ -539,6 +698,7 @@ async function enterAssignMode() {
 
     assignMode = true;
     selectedIds = new Set();
+    shownBooks = new Map(books.map(book => [book.id, book]));
 
     const grid = document.getElementById('booksGrid');
     const empty = document.getElementById('emptyState');
@@ -671,6 +831,50 @@ function filterByAuthor(author) {
     loadBooks();
 }
 
+let contentSearchGeneration = 0;
+
+async function searchContent() {
+    const q = document.getElementById('contentSearchInput').value.trim();
+    const section = document.getElementById('contentResults');
+    const generation = ++contentSearchGeneration;
+    if (!q) {
+        section.style.display = 'none';
+        return;
+    }
+
+    const res = await fetch(`/api/search?${new URLSearchParams({ q, limit: 20 })}`);
+    const results = await res.json();
+    if (generation !== contentSearchGeneration) return;
+
+    document.getElementById('contentResultsTitle').textContent =
+        results.total === 0 ? 'No quotes or memories found'
+            : `${results.total} match${results.total === 1 ? '' : 'es'} in quotes and memories`;
+    document.getElementById('contentResultsList').innerHTML = results.hits.map(hit => `
+        <a class="content-hit" href="/book/${hit.bookId}">
+            <div class="content-hit-snippet">${highlightSnippet(hit.snippet, hit.highlights)}</div>
+            <div class="content-hit-meta">
+                ${hit.type === 'quote' ? '💬 Quote' : '💭 Memory'} · ${escapeHtml(hit.bookTitle)}${hit.pageNumber != null ? ` · p. ${hit.pageNumber}` : ''}
+            </div>
+        </a>
+    `).join('');
+    section.style.display = 'block';
+}
+
+function highlightSnippet(text, highlights) {
+    let html = '';
+    let pos = 0;
+    for (const [start, end] of highlights) {
+        html += escapeHtml(text.slice(pos, start)) + '<mark>' + escapeHtml(text.slice(start, end)) + '</mark>';
+        pos = end;
+    }
+    return html + escapeHtml(text.slice(pos));
+}
+
+function clearContentSearch() {
+    document.getElementById('contentSearchInput').value = '';
+    searchContent();
+}
+
 function escapeHtml(str) {
     if (!str) return '';
     const div = document.createElement('div');
@@ -678,90 +882,31 @@ function escapeHtml(str) {
     return div.innerHTML;
 }
 
-async function fetchFromGoogleBooks(title, author) {
+async function fetchFromLookup(title, author) {
     try {
-        const query = `intitle:${encodeURIComponent(title)}+inauthor:${encodeURIComponent(author)}`;
-        const url = `https://www.googleapis.com/books/v1/volumes?q=${query}&maxResults=3`;
-        const res = await fetch(url);
+        const params = new URLSearchParams({ title, author });
+        const res = await fetch(`/api/lookup?${params}`);
         if (!res.ok) return null;
         const data = await res.json();
-        if (!data.items || data.items.length === 0) return null;
-
-        const info = data.items[0].volumeInfo;
-
-        let isbn = '';
-        if (info.industryIdentifiers) {
-            const isbn13 = info.industryIdentifiers.find(id => id.type === 'ISBN_13');
-            const isbn10 = info.industryIdentifiers.find(id => id.type === 'ISBN_10');
-            isbn = (isbn13 || isbn10 || {}).identifier || '';
-        }
-
-        const covers = data.items
-            .filter(item => item.volumeInfo?.imageLinks?.thumbnail)
-            .map(item => item.volumeInfo.imageLinks.thumbnail.replace('http://', 'https://'))
-            .filter((v, i, arr) => arr.indexOf(v) === i)
-            .slice(0, 3);
-
         return {
-            genre: info.categories ? info.categories.join(', ') : '',
-            publisher: info.publisher || '',
-            year: info.publishedDate ? info.publishedDate.substring(0, 4) : '',
-            pages: info.pageCount || '',
-            isbn,
-            covers
+            genre: data.genre || '',
+            publisher: data.publisher || '',
+            year: data.year || '',
+            pages: data.pages || '',
+            isbn: data.isbn || '',
+            covers: data.covers || []
         };
     } catch (e) {
         return null;
     }
 }
 
-async function fetchFromOpenLibrary(title, author) {
-    try {
-        const params = new URLSearchParams({
-            title,
-            author,
-            limit: '3',
-            fields: 'title,author_name,publisher,first_publish_year,number_of_pages_median,subject,isbn,cover_i'
-        });
-        const url = `https://openlibrary.org/search.json?${params}`;
-        const res = await fetch(url);
-        if (!res.ok) return null;
-        const data = await res.json();
-        if (!data.docs || data.docs.length === 0) return null;
-
-        const doc = data.docs[0];
-
-        const subjects = doc.subject || [];
-        const genre = subjects.slice(0, 3).join(', ');
-
-        const publisher = (doc.publisher && doc.publisher[0]) || '';
-        const year = doc.first_publish_year || '';
-        const pages = doc.number_of_pages_median || '';
-
-        let isbn = '';
-        if (doc.isbn && doc.isbn.length > 0) {
-            isbn = doc.isbn.find(i => i.length === 13) || doc.isbn.find(i => i.length === 10) || doc.isbn[0] || '';
-        }
-
-        const covers = data.docs
-            .filter(d => d.cover_i)
-            .map(d => `https://covers.openlibrary.org/b/id/${d.cover_i}-M.jpg`)
-            .filter((v, i, arr) => arr.indexOf(v) === i)
-            .slice(0, 3);
-
-        return { genre, publisher, year, pages, isbn, covers };
-    } catch (e) {
-        return null;
-    }
-}
-
 async function fetchBookDetails(title, author) {
     if (lastFetchedQuery && lastFetchedQuery.title === title && lastFetchedQuery.author === author) {
         return;
     }
 
-    let result = await fetchFromGoogleBooks(title, author);
-    if (!result) result = await fetchFromOpenLibrary(title, author);
+    const result = await fetchFromLookup(title, author);
 
     const coverInput = document.getElementById('coverImage');
     const preview = document.getElementById('imagePreview');
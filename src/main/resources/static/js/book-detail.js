@@ -8,11 +8,11 @@ const QUOTES_API = `${API}/quotes`;
 const MEMORIES_API = `${API}/memories`;
 
 let deleteCallback = null;
+let currentBook = null;
 
 document.addEventListener('DOMContentLoaded', () => {
+    openChangeFeed();
     loadBook();
-    loadQuotes();
-    loadMemories();
 
     // Close modals on backdrop click
     ['quoteModal', 'memoryModal', 'deleteModal'].forEach(id => {
@@ -25,18 +25,24 @@ document.addEventListener('DOMContentLoaded', () => {
 });
 
 async function loadBook() {
-    const res = await fetch(API);
+    const res = await fetch(`${API}/full`);
     if (!res.ok) {
         window.location.href = '/';
         return;
     }
-    const book = await res.json();
+    const { book, quotes, memories } = await res.json();
+    currentBook = book;
+    renderBook(book);
+    renderQuotes(quotes);
+    renderMemories(memories);
+}
 
+function renderBook(book) {
     document.title = `${book.title} — My Book Collection`;
 
     const coverEl = document.getElementById('bookCover');
     if (book.coverImagePath) {
-        coverEl.innerHTML = `<img src="${book.coverImagePath}" alt="${escapeHtml(book.title)}">`;
+        coverEl.innerHTML = `<img src="${book.coverDetailPath || book.coverImagePath}" alt="${escapeHtml(book.title)}">`;
     } else {
         coverEl.innerHTML = `<div class="detail-cover-placeholder">${escapeHtml(book.title.charAt(0).toUpperCase())}</div>`;
     }
@@ -72,10 +78,34 @@ async function loadBook() {
     }
 }
 
+// Keeps the page in step with saves made here or in any other tab. Quotes and memories are
+// refetched for this book only, once a burst of changes has passed.
+function openChangeFeed() {
+    const reloadQuotes = debounce(loadQuotes, 300);
+    const reloadMemories = debounce(loadMemories, 300);
+    const source = new EventSource('/api/changes');
+    source.addEventListener('change', (e) => {
+        const change = JSON.parse(e.data);
+        if (change.type === 'reset') {
+            loadBook();
+        } else if (change.bookId === Number(bookId)) {
+            if (change.entity === 'quote') reloadQuotes();
+            if (change.entity === 'memory') reloadMemories();
+            if (change.entity === 'book' && change.type === 'deleted') window.location.href = '/';
+            if (change.entity === 'book' && change.type === 'updated' && currentBook) {
+                currentBook = { ...currentBook, ...change.data };
+                renderBook(currentBook);
+            }
+        }
+    });
+}
+
 async function loadQuotes() {
     const res = await fetch(QUOTES_API);
-    const quotes = await res.json();
+    renderQuotes(await res.json());
+}
 
+function renderQuotes(quotes) {
     const list = document.getElementById('quotesList');
     const empty = document.getElementById('quotesEmpty');
 
@@ -101,8 +131,10 @@ async function loadQuotes() {
 
 async function loadMemories() {
     const res = await fetch(MEMORIES_API);
-    const memories = await res.json();
+    renderMemories(await res.json());
+}
 
+function renderMemories(memories) {
     const list = document.getElementById('memoriesList');
     const empty = document.getElementById('memoriesEmpty');
 
@@ -172,14 +204,12 @@ async function handleQuoteSubmit(e) {
     }
 
     closeQuoteModal();
-    loadQuotes();
 }
 
 function deleteQuote(id) {
     document.getElementById('deleteTitle').textContent = 'Delete Quote';
     deleteCallback = async () => {
         await fetch(`${QUOTES_API}/${id}`, { method: 'DELETE' });
-        loadQuotes();
     };
     document.getElementById('deleteModal').style.display = 'flex';
 }
@@ -224,14 +254,12 @@ async function handleMemorySubmit(e) {
     }
 
     closeMemoryModal();
-    loadMemories();
 }
 
 function deleteMemory(id) {
     document.getElementById('deleteTitle').textContent = 'Delete Memory';
     deleteCallback = async () => {
         await fetch(`${MEMORIES_API}/${id}`, { method: 'DELETE' });
-        loadMemories();
     };
     document.getElementById('deleteModal').style.display = 'flex';
 }
@@ -271,3 +299,11 @@ function escapeJs(str) {
     if (!str) return '';
     return str.replace(/\\/g, '\\\\').replace(/'/g, "\\'").replace(/\n/g, '\\n').replace(/\r/g, '');
 }
+
+function debounce(fn, delay) {
+    let timer;
+    return function (...args) {
+        clearTimeout(timer);
+        timer = setTimeout(() => fn.apply(this, args), delay);
+    };
+}